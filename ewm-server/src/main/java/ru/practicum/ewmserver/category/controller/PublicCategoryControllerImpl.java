@@ -1,18 +1,18 @@
 package ru.practicum.ewmserver.category.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import ru.practicum.ewmserver.category.dto.CategoryDto;
 import ru.practicum.ewmserver.category.service.PublicCategoryService;
+import ru.practicum.ewmserver.httpcache.ResponseCache;
 
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
-import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
@@ -20,15 +20,19 @@ import java.util.List;
 @Validated
 public class PublicCategoryControllerImpl {
     private final PublicCategoryService publicCategoryService;
+    private final ResponseCache responseCache;
 
     @GetMapping
-    public List<CategoryDto> getCategories(@RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                           @RequestParam(defaultValue = "10") @Positive int size) {
-        return publicCategoryService.getCategories(from, size);
+    public ResponseEntity<byte[]> getCategories(@RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                                @RequestParam(defaultValue = "10") @Positive int size,
+                                                @RequestParam(required = false) String cursor) {
+        return responseCache.get(ResponseCache.CATEGORIES, "list:" + from + ":" + size + ":" + cursor,
+                () -> publicCategoryService.getCategories(from, size, cursor));
     }
 
     @GetMapping("/{catId}")
-    public CategoryDto getCategoryById(@PathVariable @PositiveOrZero int catId) {
-        return publicCategoryService.getCategoryById(catId);
+    public ResponseEntity<byte[]> getCategoryById(@PathVariable @PositiveOrZero int catId) {
+        return responseCache.get(ResponseCache.CATEGORIES, String.valueOf(catId),
+                () -> publicCategoryService.getCategoryById(catId));
     }
 }
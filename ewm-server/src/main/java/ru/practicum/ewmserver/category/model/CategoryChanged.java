@@ -0,0 +1,11 @@
+package ru.practicum.ewmserver.category.model;
+
+import lombok.Value;
+
+/**
+ * Published when a category is created, renamed or deleted.
+ */
+@Value
+public class CategoryChanged {
+    int categoryId;
+}
@@ -1,12 +1,14 @@
 package ru.practicum.ewmserver.category.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.ewmserver.category.dto.CategoryDto;
 import ru.practicum.ewmserver.category.dto.NewCategoryDto;
 import ru.practicum.ewmserver.category.mapper.CategoryMapper;
 import ru.practicum.ewmserver.category.model.Category;
+import ru.practicum.ewmserver.category.model.CategoryChanged;
 import ru.practicum.ewmserver.category.storage.CategoryRepository;
 import ru.practicum.ewmserver.error.exception.DataConflictException;
 import ru.practicum.ewmserver.error.exception.EntityNotFoundException;
@@ -18,6 +20,7 @@ import static ru.practicum.ewmserver.error.constants.ErrorStrings.CATEGORY_WITH_
 @Service
 public class AdminCategoryServiceImpl implements AdminCategoryService {
     private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -25,8 +28,9 @@ public class AdminCategoryServiceImpl implements AdminCategoryService {
         if (categoryRepository.existsByName(newCategoryDto.getName())) {
             throw new DataConflictException(CATEGORY_WITH_THIS_NAME_ALREADY_EXISTS);
         }
-        final Category category = CategoryMapper.createCategory(newCategoryDto);
-        return CategoryMapper.createCategoryDto(categoryRepository.save(category));
+        final Category category = categoryRepository.save(CategoryMapper.createCategory(newCategoryDto));
+        eventPublisher.publishEvent(new CategoryChanged(category.getId()));
+        return CategoryMapper.createCategoryDto(category);
     }
 
     @Override
@@ -36,6 +40,7 @@ public class AdminCategoryServiceImpl implements AdminCategoryService {
             throw new EntityNotFoundException(String.format(CATEGORY_NOT_FOUND_BY_ID, categoryId));
         }
         categoryRepository.deleteById(categoryId);
+        eventPublisher.publishEvent(new CategoryChanged(categoryId));
     }
 
     @Override
@@ -54,6 +59,7 @@ public class AdminCategoryServiceImpl implements AdminCategoryService {
             throw new DataConflictException(CATEGORY_WITH_THIS_NAME_ALREADY_EXISTS);
         }
         category.setName(categoryDto.getName());
+        eventPublisher.publishEvent(new CategoryChanged(categoryId));
         return CategoryMapper.createCategoryDto(categoryRepository.save(category));
     }
 }
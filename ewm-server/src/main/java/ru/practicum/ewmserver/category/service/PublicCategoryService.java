@@ -1,11 +1,12 @@
 package ru.practicum.ewmserver.category.service;
 
 import ru.practicum.ewmserver.category.dto.CategoryDto;
+import ru.practicum.ewmserver.pagination.CursorPage;
 
 import java.util.List;
 
 public interface PublicCategoryService {
-    List<CategoryDto> getCategories(int from, int size);
+    CursorPage<CategoryDto> getCategories(int from, int size, String cursor);
 
     CategoryDto getCategoryById(int catId);
 }
@@ -1,7 +1,7 @@
 package ru.practicum.ewmserver.category.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.ewmserver.category.dto.CategoryDto;
@@ -9,24 +9,28 @@ import ru.practicum.ewmserver.category.mapper.CategoryMapper;
 import ru.practicum.ewmserver.category.model.Category;
 import ru.practicum.ewmserver.category.storage.CategoryRepository;
 import ru.practicum.ewmserver.error.exception.EntityNotFoundException;
-
-import java.util.List;
-import java.util.stream.Collectors;
+import ru.practicum.ewmserver.pagination.Cursor;
+import ru.practicum.ewmserver.pagination.CursorPage;
+import ru.practicum.ewmserver.pagination.OffsetPageRequest;
 
 import static ru.practicum.ewmserver.error.constants.ErrorStrings.CATEGORY_NOT_FOUND_BY_ID;
 
 @Service
 @RequiredArgsConstructor
 public class PublicCategoryServiceImpl implements PublicCategoryService {
+    private static final String CATEGORIES_ORDERING = "categories";
+
     private final CategoryRepository categoryRepository;
 
     @Override
     @Transactional(readOnly = true)
-    public List<CategoryDto> getCategories(int from, int size) {
-       final PageRequest pageRequest = PageRequest.of(from > 0 ? from / size : 0, size);
-        return categoryRepository.findAll(pageRequest).getContent().stream()
-                .map(CategoryMapper::createCategoryDto)
-                .collect(Collectors.toList());
+    public CursorPage<CategoryDto> getCategories(int from, int size, String cursor) {
+        final Cursor after = Cursor.decode(cursor, CATEGORIES_ORDERING, 1);
+        final Slice<Category> categories = after == null
+                ? categoryRepository.getCategories(OffsetPageRequest.of(from, size))
+                : categoryRepository.getCategoriesAfter(after.getInt(0), OffsetPageRequest.of(0, size));
+        return CursorPage.of(categories, category -> Cursor.of(CATEGORIES_ORDERING, category.getId()))
+                .map(CategoryMapper::createCategoryDto);
     }
 
     @Override
@@ -1,8 +1,23 @@
 package ru.practicum.ewmserver.category.storage;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.ewmserver.category.model.Category;
 
 public interface CategoryRepository extends JpaRepository<Category, Integer> {
     boolean existsByName(String name);
+
+    @Query("select c " +
+            "from Category as c " +
+            "order by c.id")
+    Slice<Category> getCategories(Pageable page);
+
+    @Query("select c " +
+            "from Category as c " +
+            "where c.id > :afterId " +
+            "order by c.id")
+    Slice<Category> getCategoriesAfter(@Param("afterId") int afterId, Pageable page);
 }
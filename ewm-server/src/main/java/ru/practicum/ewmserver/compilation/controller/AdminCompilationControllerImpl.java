@@ -6,6 +6,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.ewmserver.compilation.dto.CompilationDto;
 import ru.practicum.ewmserver.compilation.dto.NewCompilationDto;
+import ru.practicum.ewmserver.compilation.dto.UpdateCompilationEventsRequest;
 import ru.practicum.ewmserver.compilation.dto.UpdateCompilationRequest;
 import ru.practicum.ewmserver.compilation.service.AdminCompilationService;
 
@@ -36,4 +37,10 @@ public class AdminCompilationControllerImpl {
                                            @PathVariable @PositiveOrZero int compId) {
         return adminCompilationService.patchCompilation(updateCompilationRequest, compId);
     }
+
+    @PatchMapping("/{compId}/events")
+    public CompilationDto patchCompilationEvents(@RequestBody UpdateCompilationEventsRequest updateCompilationEventsRequest,
+                                                 @PathVariable @PositiveOrZero int compId) {
+        return adminCompilationService.patchCompilationEvents(updateCompilationEventsRequest, compId);
+    }
 }
@@ -1,14 +1,14 @@
 package ru.practicum.ewmserver.compilation.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
-import ru.practicum.ewmserver.compilation.dto.CompilationDto;
 import ru.practicum.ewmserver.compilation.service.PublicCompilationService;
+import ru.practicum.ewmserver.httpcache.ResponseCache;
 
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
-import java.util.List;
 
 @RestController
 @RequestMapping("/compilations")
@@ -16,16 +16,21 @@ import java.util.List;
 @Validated
 public class PublicCompilationControllerImpl {
     private final PublicCompilationService publicCompilationService;
+    private final ResponseCache responseCache;
 
     @GetMapping
-    public List<CompilationDto> getCompilation(@RequestParam(defaultValue = "false") boolean pinned,
-                                               @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                               @RequestParam(defaultValue = "10") @Positive int size) {
-        return publicCompilationService.getCompilation(pinned, from, size);
+    public ResponseEntity<byte[]> getCompilation(@RequestParam(defaultValue = "false") boolean pinned,
+                                                 @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                                 @RequestParam(defaultValue = "10") @Positive int size,
+                                                 @RequestParam(required = false) String cursor) {
+        return responseCache.get(ResponseCache.COMPILATIONS,
+                "list:" + pinned + ":" + from + ":" + size + ":" + cursor,
+                () -> publicCompilationService.getCompilation(pinned, from, size, cursor));
     }
 
     @GetMapping("/{compId}")
-    public CompilationDto getCompilationById(@PathVariable @PositiveOrZero int compId) {
-        return publicCompilationService.getCompilationById(compId);
+    public ResponseEntity<byte[]> getCompilationById(@PathVariable @PositiveOrZero int compId) {
+        return responseCache.get(ResponseCache.COMPILATIONS, String.valueOf(compId),
+                () -> publicCompilationService.getCompilationById(compId));
     }
 }
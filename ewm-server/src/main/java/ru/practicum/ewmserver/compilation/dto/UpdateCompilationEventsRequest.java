@@ -0,0 +1,17 @@
+package ru.practicum.ewmserver.compilation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor(force = true)
+public class UpdateCompilationEventsRequest {
+    private final List<Integer> add;
+    private final List<Integer> remove;
+}
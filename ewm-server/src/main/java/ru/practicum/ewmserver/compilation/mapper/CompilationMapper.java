@@ -5,12 +5,8 @@ import ru.practicum.ewmserver.compilation.dto.CompilationDto;
 import ru.practicum.ewmserver.compilation.dto.NewCompilationDto;
 import ru.practicum.ewmserver.compilation.model.Compilation;
 import ru.practicum.ewmserver.event.dto.EventShortDto;
-import ru.practicum.ewmserver.event.mapper.EventMapper;
-import ru.practicum.ewmserver.request.model.RequestStatus;
-import ru.practicum.ewmserver.request.storage.RequestRepository;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @UtilityClass
 public class CompilationMapper {
@@ -31,23 +27,4 @@ public class CompilationMapper {
                 .events(eventsList)
                 .build();
     }
-
-    public static CompilationDto createCompilationDtoWithEventList(Compilation compilation,
-                                                                   RequestRepository requestRepository) {
-        return CompilationDto.builder()
-                .id(compilation.getId())
-                .pinned(compilation.getPinned())
-                .title(compilation.getTitle())
-                .events(compilation.getEvents().stream()
-                        .map(event -> EventMapper.createEventShortDto(
-                                        event,
-                                        requestRepository.countRequestByEventIdAndStatus(
-                                                event.getId(),
-                                                RequestStatus.CONFIRMED
-                                        )
-                                )
-                        )
-                        .collect(Collectors.toList()))
-                .build();
-    }
 }
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 import ru.practicum.ewmserver.event.model.Event;
 
 import javax.persistence.*;
@@ -14,6 +15,7 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 @Entity
+@DynamicUpdate
 @Table(name = "compilation")
 public class Compilation {
     @Id
@@ -23,6 +25,9 @@ public class Compilation {
     private Boolean pinned;
     @Column(name = "title")
     private String title;
+    @Version
+    @Column(name = "version")
+    private long version;
     @ManyToMany
     @JoinTable(
             name = "event_compilation_connection",
@@ -0,0 +1,8 @@
+package ru.practicum.ewmserver.compilation.model;
+
+import lombok.Value;
+
+@Value
+public class CompilationChanged {
+    int compilationId;
+}
@@ -0,0 +1,32 @@
+package ru.practicum.ewmserver.compilation.model;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.ewmserver.event.model.EventShortView;
+
+import java.time.LocalDateTime;
+
+@Getter
+@ToString(callSuper = true)
+@EqualsAndHashCode(callSuper = true)
+public class CompilationEventView extends EventShortView {
+    private final int compilationId;
+
+    public CompilationEventView(int compilationId,
+                                int id,
+                                String annotation,
+                                int categoryId,
+                                String categoryName,
+                                int confirmedRequests,
+                                LocalDateTime eventDate,
+                                int initiatorId,
+                                String initiatorName,
+                                Boolean paid,
+                                String title,
+                                long views) {
+        super(id, annotation, categoryId, categoryName, confirmedRequests, eventDate, initiatorId, initiatorName,
+                paid, title, views);
+        this.compilationId = compilationId;
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.ewmserver.compilation.service;
 
 import ru.practicum.ewmserver.compilation.dto.CompilationDto;
 import ru.practicum.ewmserver.compilation.dto.NewCompilationDto;
+import ru.practicum.ewmserver.compilation.dto.UpdateCompilationEventsRequest;
 import ru.practicum.ewmserver.compilation.dto.UpdateCompilationRequest;
 
 public interface AdminCompilationService {
@@ -10,4 +11,6 @@ public interface AdminCompilationService {
     void deleteCompilation(int compilationId);
 
     CompilationDto patchCompilation(UpdateCompilationRequest updateCompilationRequest, int compilationId);
+
+    CompilationDto patchCompilationEvents(UpdateCompilationEventsRequest updateCompilationEventsRequest, int compilationId);
 }
@@ -1,39 +1,46 @@
 package ru.practicum.ewmserver.compilation.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.ewmserver.compilation.dto.CompilationDto;
 import ru.practicum.ewmserver.compilation.dto.NewCompilationDto;
+import ru.practicum.ewmserver.compilation.dto.UpdateCompilationEventsRequest;
 import ru.practicum.ewmserver.compilation.dto.UpdateCompilationRequest;
 import ru.practicum.ewmserver.compilation.mapper.CompilationMapper;
 import ru.practicum.ewmserver.compilation.model.Compilation;
-import ru.practicum.ewmserver.compilation.model.EventCompilationConnection;
+import ru.practicum.ewmserver.compilation.model.CompilationChanged;
+import ru.practicum.ewmserver.compilation.model.CompilationEventView;
 import ru.practicum.ewmserver.compilation.storage.CompilationRepository;
 import ru.practicum.ewmserver.compilation.storage.EventCompilationConnectionRepository;
 import ru.practicum.ewmserver.error.exception.DataConflictException;
 import ru.practicum.ewmserver.error.exception.EntityNotFoundException;
-import ru.practicum.ewmserver.event.dto.EventShortDto;
+import ru.practicum.ewmserver.error.exception.InvalidRequestException;
 import ru.practicum.ewmserver.event.mapper.EventMapper;
-import ru.practicum.ewmserver.event.model.Event;
+import ru.practicum.ewmserver.event.service.EventViewService;
 import ru.practicum.ewmserver.event.storage.EventRepository;
-import ru.practicum.ewmserver.request.model.RequestStatus;
-import ru.practicum.ewmserver.request.storage.RequestRepository;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static ru.practicum.ewmserver.error.constants.ErrorStrings.COMPILATION_NOT_FOUND_BY_ID;
 import static ru.practicum.ewmserver.error.constants.ErrorStrings.COMPILATION_NOT_FOUND_BY_TITLE;
+import static ru.practicum.ewmserver.error.constants.ErrorStrings.EVENTS_ADDED_AND_REMOVED;
+import static ru.practicum.ewmserver.error.constants.ErrorStrings.EVENT_NOT_FOUND_BY_ID;
 
 @Service
 @RequiredArgsConstructor
 public class AdminCompilationServiceImpl implements AdminCompilationService {
     private final EventRepository eventRepository;
-    private final RequestRepository requestRepository;
     private final CompilationRepository compilationRepository;
     private final EventCompilationConnectionRepository eventCompilationConnectionRepository;
+    private final EventViewService eventViewService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -41,30 +48,14 @@ public class AdminCompilationServiceImpl implements AdminCompilationService {
         if (compilationRepository.existsByTitle(compilationDto.getTitle())) {
             throw new DataConflictException(String.format(COMPILATION_NOT_FOUND_BY_TITLE, compilationDto.getTitle()));
         }
-        List<EventShortDto> eventShortDtoList = new ArrayList<>();
-        final Compilation compilation = CompilationMapper.createCompilation(compilationDto);
-        final Compilation compilationFromDb = compilationRepository.save(compilation);
-        if (compilationDto.getEvents() != null && !compilationDto.getEvents().isEmpty()) {
-            List<Event> events = eventRepository.findAllById(new ArrayList<>(compilationDto.getEvents()));
-            eventShortDtoList = events.stream()
-                    .map(
-                            event -> EventMapper.createEventShortDto(
-                                    event,
-                                    requestRepository.countRequestByEventIdAndStatus(
-                                            event.getId(),
-                                            RequestStatus.CONFIRMED
-                                    )
-                            )
-                    )
-                    .collect(Collectors.toList());
-            for (Integer eventId : compilationDto.getEvents()) {
-                eventCompilationConnectionRepository.save(
-                        new EventCompilationConnection(0, eventId, compilationFromDb.getId())
-                );
-            }
-            return CompilationMapper.createCompilationDtoWithoutEventList(compilation, eventShortDtoList);
+        final Compilation compilationFromDb = compilationRepository.save(CompilationMapper.createCompilation(compilationDto));
+        eventPublisher.publishEvent(new CompilationChanged(compilationFromDb.getId()));
+        if (compilationDto.getEvents() == null || compilationDto.getEvents().isEmpty()) {
+            return CompilationMapper.createCompilationDtoWithoutEventList(compilationFromDb, new ArrayList<>());
         }
-        return CompilationMapper.createCompilationDtoWithoutEventList(compilationFromDb, eventShortDtoList);
+        checkEventsExist(compilationDto.getEvents());
+        eventCompilationConnectionRepository.addEvents(compilationFromDb.getId(), compilationDto.getEvents());
+        return createCompilationDto(compilationFromDb);
     }
 
     @Override
@@ -74,17 +65,13 @@ public class AdminCompilationServiceImpl implements AdminCompilationService {
             throw new EntityNotFoundException(String.format(COMPILATION_NOT_FOUND_BY_ID, compilationId));
         }
         compilationRepository.deleteById(compilationId);
+        eventPublisher.publishEvent(new CompilationChanged(compilationId));
     }
 
     @Override
     @Transactional
     public CompilationDto patchCompilation(UpdateCompilationRequest updateCompilationRequest, int compilationId) {
-        final Compilation compilationFromDb = compilationRepository.findById(compilationId)
-                .orElseThrow(
-                        () -> new EntityNotFoundException(
-                                String.format(COMPILATION_NOT_FOUND_BY_ID, compilationId)
-                        )
-                );
+        final Compilation compilationFromDb = getCompilation(compilationId);
         if (updateCompilationRequest.getTitle() != null && !updateCompilationRequest.getTitle().isBlank()) {
             compilationFromDb.setTitle(updateCompilationRequest.getTitle());
         }
@@ -92,17 +79,67 @@ public class AdminCompilationServiceImpl implements AdminCompilationService {
             compilationFromDb.setPinned(updateCompilationRequest.getPinned());
         }
         if (updateCompilationRequest.getEvents() != null) {
-            if (updateCompilationRequest.getEvents().isEmpty()) {
-                compilationFromDb.setEvents(new ArrayList<>());
-            } else {
-                compilationFromDb.setEvents(
-                        eventRepository.findAllById(new ArrayList<>(updateCompilationRequest.getEvents()))
+            final Set<Integer> events = new HashSet<>(updateCompilationRequest.getEvents());
+            final Set<Integer> current = new HashSet<>(eventCompilationConnectionRepository.getEventIds(compilationId));
+            final Set<Integer> added = new HashSet<>(events);
+            added.removeAll(current);
+            current.removeAll(events);
+            checkEventsExist(added);
+            eventCompilationConnectionRepository.removeEvents(compilationId, current);
+            eventCompilationConnectionRepository.addEvents(compilationId, added);
+        }
+        eventPublisher.publishEvent(new CompilationChanged(compilationId));
+        return createCompilationDto(compilationFromDb);
+    }
+
+    @Override
+    @Transactional
+    public CompilationDto patchCompilationEvents(UpdateCompilationEventsRequest updateCompilationEventsRequest,
+                                                 int compilationId) {
+        final Compilation compilationFromDb = getCompilation(compilationId);
+        final List<Integer> added = updateCompilationEventsRequest.getAdd() == null
+                ? List.of()
+                : updateCompilationEventsRequest.getAdd();
+        final List<Integer> removed = updateCompilationEventsRequest.getRemove() == null
+                ? List.of()
+                : updateCompilationEventsRequest.getRemove();
+        if (added.stream().anyMatch(removed::contains)) {
+            throw new InvalidRequestException(EVENTS_ADDED_AND_REMOVED);
+        }
+        checkEventsExist(added);
+        eventCompilationConnectionRepository.removeEvents(compilationId, removed);
+        eventCompilationConnectionRepository.addEvents(compilationId, added);
+        eventPublisher.publishEvent(new CompilationChanged(compilationId));
+        return createCompilationDto(compilationFromDb);
+    }
+
+    private Compilation getCompilation(int compilationId) {
+        return compilationRepository.findById(compilationId)
+                .orElseThrow(
+                        () -> new EntityNotFoundException(
+                                String.format(COMPILATION_NOT_FOUND_BY_ID, compilationId)
+                        )
                 );
+    }
+
+    private void checkEventsExist(Collection<Integer> eventIds) {
+        if (eventIds.isEmpty()) {
+            return;
+        }
+        final Set<Integer> existing = new HashSet<>(eventRepository.getExistingIds(eventIds));
+        for (Integer eventId : eventIds) {
+            if (!existing.contains(eventId)) {
+                throw new EntityNotFoundException(String.format(EVENT_NOT_FOUND_BY_ID, eventId));
             }
         }
-        return CompilationMapper.createCompilationDtoWithEventList(
-                compilationRepository.save(compilationFromDb),
-                requestRepository
+    }
+
+    private CompilationDto createCompilationDto(Compilation compilation) {
+        final List<CompilationEventView> events = compilationRepository.getEventViews(List.of(compilation.getId()));
+        eventViewService.fillViews(events);
+        return CompilationMapper.createCompilationDtoWithoutEventList(
+                compilation,
+                events.stream().map(EventMapper::createEventShortDto).collect(Collectors.toList())
         );
     }
 }
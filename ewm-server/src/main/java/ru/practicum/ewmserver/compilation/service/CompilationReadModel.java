@@ -0,0 +1,11 @@
+package ru.practicum.ewmserver.compilation.service;
+
+import ru.practicum.ewmserver.compilation.model.Compilation;
+
+import java.util.List;
+
+public interface CompilationReadModel {
+    List<byte[]> getCompilations(List<Compilation> compilations);
+
+    byte[] getCompilation(int compilationId);
+}
@@ -0,0 +1,147 @@
+package ru.practicum.ewmserver.compilation.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.ewmserver.category.model.CategoryChanged;
+import ru.practicum.ewmserver.compilation.dto.CompilationDto;
+import ru.practicum.ewmserver.compilation.mapper.CompilationMapper;
+import ru.practicum.ewmserver.compilation.model.Compilation;
+import ru.practicum.ewmserver.compilation.model.CompilationChanged;
+import ru.practicum.ewmserver.compilation.model.CompilationEventView;
+import ru.practicum.ewmserver.compilation.storage.CompilationRepository;
+import ru.practicum.ewmserver.error.exception.EntityNotFoundException;
+import ru.practicum.ewmserver.event.mapper.EventMapper;
+import ru.practicum.ewmserver.event.model.EventChanged;
+import ru.practicum.ewmserver.event.service.EventViewService;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static ru.practicum.ewmserver.error.constants.ErrorStrings.COMPILATION_NOT_FOUND_BY_ID;
+
+/**
+ * Caches compilations as ready-to-write JSON. Entries are dropped after commit of any change to the compilation,
+ * to one of its events or to a category; the expiry only bounds how stale the view counts inside them can get.
+ */
+@Service
+public class CompilationReadModelImpl implements CompilationReadModel {
+    private static final String CACHE_NAME = "compilations";
+
+    private final Cache<Integer, CachedCompilation> compilations;
+    private final CompilationRepository compilationRepository;
+    private final EventViewService eventViewService;
+    private final ObjectMapper objectMapper;
+
+    public CompilationReadModelImpl(CompilationRepository compilationRepository,
+                                    EventViewService eventViewService,
+                                    ObjectMapper objectMapper,
+                                    @Value("${ewm.compilation-cache.maximum-size:1000}") long maximumSize,
+                                    @Value("${ewm.compilation-cache.expire-after-write-ms:10000}") long expireAfterWriteMs,
+                                    ObjectProvider<MeterRegistry> meterRegistry) {
+        this.compilationRepository = compilationRepository;
+        this.eventViewService = eventViewService;
+        this.objectMapper = objectMapper;
+        this.compilations = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, compilations, CACHE_NAME));
+    }
+
+    @Override
+    public List<byte[]> getCompilations(List<Compilation> page) {
+        if (page.isEmpty()) {
+            return List.of();
+        }
+        final Map<Integer, Compilation> byId = page.stream()
+                .collect(Collectors.toMap(Compilation::getId, Function.identity()));
+        final Map<Integer, CachedCompilation> cached = compilations.getAll(byId.keySet(), ids -> {
+            final List<Compilation> missing = new ArrayList<>();
+            ids.forEach(id -> missing.add(byId.get(id)));
+            return load(missing);
+        });
+        return page.stream()
+                .map(compilation -> cached.get(compilation.getId()).getJson())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public byte[] getCompilation(int compilationId) {
+        return compilations.get(compilationId, id -> load(List.of(compilationRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException(String.format(COMPILATION_NOT_FOUND_BY_ID, id)))
+        )).get(id)).getJson();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCompilationChanged(CompilationChanged change) {
+        compilations.invalidate(change.getCompilationId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChanged change) {
+        compilations.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChanged change) {
+        compilations.asMap().values().removeIf(compilation -> compilation.getEventIds().contains(change.getEventId()));
+    }
+
+    private Map<Integer, CachedCompilation> load(List<Compilation> missing) {
+        final List<CompilationEventView> events = compilationRepository.getEventViews(missing.stream()
+                .map(Compilation::getId)
+                .collect(Collectors.toList()));
+        eventViewService.fillViews(events);
+        final Map<Integer, List<CompilationEventView>> eventsByCompilation = events.stream()
+                .collect(Collectors.groupingBy(CompilationEventView::getCompilationId));
+        final Map<Integer, CachedCompilation> loaded = new HashMap<>();
+        for (Compilation compilation : missing) {
+            final List<CompilationEventView> compilationEvents = eventsByCompilation.getOrDefault(
+                    compilation.getId(),
+                    List.of()
+            );
+            final CompilationDto dto = CompilationMapper.createCompilationDtoWithoutEventList(
+                    compilation,
+                    compilationEvents.stream().map(EventMapper::createEventShortDto).collect(Collectors.toList())
+            );
+            loaded.put(compilation.getId(), new CachedCompilation(
+                    serialize(dto),
+                    compilationEvents.stream().map(CompilationEventView::getId).collect(Collectors.toSet())
+            ));
+        }
+        return loaded;
+    }
+
+    private byte[] serialize(CompilationDto compilation) {
+        try {
+            return objectMapper.writeValueAsBytes(compilation);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class CachedCompilation {
+        private final byte[] json;
+        private final Set<Integer> eventIds;
+    }
+}
@@ -1,12 +1,10 @@
 package ru.practicum.ewmserver.compilation.service;
 
-import ru.practicum.ewmserver.compilation.dto.CompilationDto;
-
-import java.util.List;
+import ru.practicum.ewmserver.pagination.CursorPage;
 
 public interface PublicCompilationService {
 
-    List<CompilationDto> getCompilation(boolean pinned, int from, int size);
+    CursorPage<byte[]> getCompilation(boolean pinned, int from, int size, String cursor);
 
-    CompilationDto getCompilationById(int compId);
+    byte[] getCompilationById(int compId);
 }
@@ -1,50 +1,49 @@
 package ru.practicum.ewmserver.compilation.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.ewmserver.compilation.dto.CompilationDto;
-import ru.practicum.ewmserver.compilation.mapper.CompilationMapper;
 import ru.practicum.ewmserver.compilation.model.Compilation;
 import ru.practicum.ewmserver.compilation.storage.CompilationRepository;
-import ru.practicum.ewmserver.error.exception.EntityNotFoundException;
-import ru.practicum.ewmserver.request.storage.RequestRepository;
-
-import java.util.List;
-import java.util.stream.Collectors;
-
-import static ru.practicum.ewmserver.error.constants.ErrorStrings.COMPILATION_NOT_FOUND_BY_ID;
+import ru.practicum.ewmserver.pagination.Cursor;
+import ru.practicum.ewmserver.pagination.CursorPage;
+import ru.practicum.ewmserver.pagination.OffsetPageRequest;
 
 @Service
 @RequiredArgsConstructor
 public class PublicCompilationServiceImpl implements PublicCompilationService {
+    private static final String COMPILATIONS_ORDERING = "compilations";
+
     private final CompilationRepository compilationRepository;
-    private final RequestRepository requestRepository;
+    private final CompilationReadModel compilationReadModel;
 
     @Override
     @Transactional(readOnly = true)
-    public List<CompilationDto> getCompilation(boolean pinned, int from, int size) {
-        final PageRequest pageRequest = PageRequest.of(from > 0 ? from / size : 0, size);
-        if (pinned) {
-            return compilationRepository.getAllByPinned(true, pageRequest).getContent().stream()
-                    .map(event -> CompilationMapper.createCompilationDtoWithEventList(event, requestRepository))
-                    .collect(Collectors.toList());
-        }
-        return compilationRepository.findAll(pageRequest).getContent().stream()
-                .map(event -> CompilationMapper.createCompilationDtoWithEventList(event, requestRepository))
-                .collect(Collectors.toList());
+    public CursorPage<byte[]> getCompilation(boolean pinned, int from, int size, String cursor) {
+        final Cursor after = Cursor.decode(cursor, COMPILATIONS_ORDERING, 1);
+        final Slice<Compilation> compilations = pinned
+                ? getPinnedCompilations(after, from, size)
+                : getAllCompilations(after, from, size);
+        return CursorPage.of(compilations, compilation -> Cursor.of(COMPILATIONS_ORDERING, compilation.getId()))
+                .mapContent(compilationReadModel::getCompilations);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public CompilationDto getCompilationById(int compilationId) {
-        final Compilation compilation = compilationRepository.findById(compilationId)
-                .orElseThrow(
-                        () -> new EntityNotFoundException(
-                                String.format(COMPILATION_NOT_FOUND_BY_ID, compilationId)
-                        )
-                );
-        return CompilationMapper.createCompilationDtoWithEventList(compilation, requestRepository);
+    public byte[] getCompilationById(int compilationId) {
+        return compilationReadModel.getCompilation(compilationId);
+    }
+
+    private Slice<Compilation> getPinnedCompilations(Cursor after, int from, int size) {
+        return after == null
+                ? compilationRepository.getPinnedCompilations(OffsetPageRequest.of(from, size))
+                : compilationRepository.getPinnedCompilationsAfter(after.getInt(0), OffsetPageRequest.of(0, size));
+    }
+
+    private Slice<Compilation> getAllCompilations(Cursor after, int from, int size) {
+        return after == null
+                ? compilationRepository.getCompilations(OffsetPageRequest.of(from, size))
+                : compilationRepository.getCompilationsAfter(after.getInt(0), OffsetPageRequest.of(0, size));
     }
 }
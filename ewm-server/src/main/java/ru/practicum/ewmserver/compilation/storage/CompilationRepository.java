@@ -1,14 +1,53 @@
 package ru.practicum.ewmserver.compilation.storage;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.ewmserver.compilation.model.Compilation;
+import ru.practicum.ewmserver.compilation.model.CompilationEventView;
+import ru.practicum.ewmserver.event.storage.EventRepository;
+
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface CompilationRepository extends JpaRepository<Compilation, Integer> {
     boolean existsByTitle(String title);
 
-    Page<Compilation> getAllByPinned(boolean pinned, Pageable pageable);
+    @Query("select c " +
+            "from Compilation as c " +
+            "order by c.id")
+    Slice<Compilation> getCompilations(Pageable page);
+
+    @Query("select c " +
+            "from Compilation as c " +
+            "where c.id > :afterId " +
+            "order by c.id")
+    Slice<Compilation> getCompilationsAfter(@Param("afterId") int afterId, Pageable page);
+
+    @Query("select c " +
+            "from Compilation as c " +
+            "where c.pinned = true " +
+            "order by c.id")
+    Slice<Compilation> getPinnedCompilations(Pageable page);
+
+    @Query("select c " +
+            "from Compilation as c " +
+            "where c.pinned = true " +
+            "and c.id > :afterId " +
+            "order by c.id")
+    Slice<Compilation> getPinnedCompilationsAfter(@Param("afterId") int afterId, Pageable page);
+
+    @Query("select new ru.practicum.ewmserver.compilation.model.CompilationEventView(cc.compilationId, " +
+            EventRepository.SHORT_VIEW_FIELDS + ") " +
+            "from EventCompilationConnection as cc " +
+            "join Event as e on e.id = cc.eventId " +
+            "join e.category as c " +
+            "join e.initiator as u " +
+            "where cc.compilationId in :ids " +
+            "order by cc.id")
+    List<CompilationEventView> getEventViews(@Param("ids") Collection<Integer> compilationIds);
 }
@@ -1,10 +1,16 @@
 package ru.practicum.ewmserver.compilation.storage;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.ewmserver.compilation.model.EventCompilationConnection;
 
-@Repository
-public interface EventCompilationConnectionRepository extends JpaRepository<EventCompilationConnection, Integer> {
+import java.util.List;
 
+@Repository
+public interface EventCompilationConnectionRepository extends JpaRepository<EventCompilationConnection, Integer>,
+        EventCompilationConnectionRepositoryCustom {
+    @Query("select c.eventId from EventCompilationConnection as c where c.compilationId = :compilationId")
+    List<Integer> getEventIds(@Param("compilationId") int compilationId);
 }
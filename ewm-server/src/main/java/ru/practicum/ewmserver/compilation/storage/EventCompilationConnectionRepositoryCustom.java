@@ -0,0 +1,9 @@
+package ru.practicum.ewmserver.compilation.storage;
+
+import java.util.Collection;
+
+public interface EventCompilationConnectionRepositoryCustom {
+    int addEvents(int compilationId, Collection<Integer> eventIds);
+
+    int removeEvents(int compilationId, Collection<Integer> eventIds);
+}
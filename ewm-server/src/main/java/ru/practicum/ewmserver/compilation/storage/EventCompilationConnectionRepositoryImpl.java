@@ -0,0 +1,37 @@
+package ru.practicum.ewmserver.compilation.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.Collection;
+
+@RequiredArgsConstructor
+public class EventCompilationConnectionRepositoryImpl implements EventCompilationConnectionRepositoryCustom {
+    private static final String ADD_EVENTS = "insert into event_compilation_connection (compilation_id, event_id) " +
+            "select :compilationId, e.id " +
+            "from event as e " +
+            "where e.id in (:eventIds) " +
+            "and not exists (select 1 from event_compilation_connection as c " +
+            "where c.compilation_id = :compilationId and c.event_id = e.id)";
+    private static final String REMOVE_EVENTS = "delete from event_compilation_connection " +
+            "where compilation_id = :compilationId and event_id in (:eventIds)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public int addEvents(int compilationId, Collection<Integer> eventIds) {
+        return eventIds.isEmpty() ? 0 : jdbcTemplate.update(ADD_EVENTS, parameters(compilationId, eventIds));
+    }
+
+    @Override
+    public int removeEvents(int compilationId, Collection<Integer> eventIds) {
+        return eventIds.isEmpty() ? 0 : jdbcTemplate.update(REMOVE_EVENTS, parameters(compilationId, eventIds));
+    }
+
+    private static MapSqlParameterSource parameters(int compilationId, Collection<Integer> eventIds) {
+        return new MapSqlParameterSource()
+                .addValue("compilationId", compilationId)
+                .addValue("eventIds", eventIds);
+    }
+}
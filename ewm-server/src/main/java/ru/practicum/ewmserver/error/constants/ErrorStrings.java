@@ -12,6 +12,7 @@ public class ErrorStrings {
     public static final String USER_NOT_FOUND_BY_ID = "User with id=%d was not found";
     public static final String REQUEST_NOT_FOUND_BY_ID = "Request with id=%d was not found";
     public static final String EVENT_NOT_FOUND_BY_ID = "Event with id=%d was not found";
+    public static final String EVENTS_ADDED_AND_REMOVED = "The same event can not be both added and removed";
     public static final String CATEGORY_NOT_FOUND_BY_ID = "Category with id=%d was not found";
     public static final String CANNOT_PUBLISH_EVENT_NOT_PENDING = "Cannot publish the event because it's not in the right state: PENDING";
     public static final String CANNOT_REJECT_EVENT_NOT_PENDING = "Cannot reject the event because it's not in the right state: PENDING";
@@ -20,11 +21,18 @@ public class ErrorStrings {
     public static final String INVALID_ACTION = "Invalid action: ";
     public static final String INVALID_STATE = "Invalid state: ";
     public static final String INVAlID_TIME_PARAMETERS = "Invalid time parameters";
-    public static final String INVALID_SORTING_PARAMETERS = "Invalid sorting argument. Can only be one of [EVENT_DATE, VIEWS] or empty";
+    public static final String INVALID_CURSOR = "Invalid cursor";
+    public static final String INVALID_IF_MATCH = "If-Match must hold the version of the object";
+    public static final String INVALID_SORTING_PARAMETERS = "Invalid sorting argument. Can only be one of [EVENT_DATE, VIEWS, DISTANCE] or empty";
+    public static final String INVALID_GEO_PARAMETERS = "Parameters lat, lon and radius must be given together, with lat in [-90, 90], lon in [-180, 180] and a positive radius";
+    public static final String DISTANCE_SORT_WITHOUT_LOCATION = "Sorting by DISTANCE requires lat, lon and radius";
     public static final String REQUEST_ALREADY_EXISTS = "Request from user with id=%d to event with id=%d already exists";
     public static final String REQUEST_FROM_OWNER = "Can't create request. User with id=%d is owner of the event with %d";
     public static final String REQUEST_FOR_NOT_PUBLISHED_EVENT = "Can't create request. Event with id=%d is not published";
     public static final String EVENT_IS_FULL = "Can't create request. Event with id=%d is full";
+    public static final String PARTICIPANT_LIMIT_REACHED = "The participant limit has been reached for event with id=%d";
+    public static final String CANNOT_REJECT_CONFIRMED_REQUEST = "Cannot reject an already confirmed request";
+    public static final String CONCURRENT_MODIFICATION = "The object was changed by another request, reload it and try again";
     public static final String CANT_CANCEL_NOT_OWNER = "Can't cancel because you're not owner";
     public static final String EVENT_DATE_2_HOURS_MIN_SHOULD_BE = "Field: eventDate. Error: должно содержать дату, которая еще не наступила. Value: ";
     public static final String PATCH_NOT_PENDING_STATE = "Only pending or canceled events can be changed";
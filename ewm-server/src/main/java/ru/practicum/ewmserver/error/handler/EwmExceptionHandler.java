@@ -1,6 +1,7 @@
 package ru.practicum.ewmserver.error.handler;
 
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
@@ -17,6 +18,10 @@ import ru.practicum.ewmserver.error.exception.ForbiddenOperationException;
 import ru.practicum.ewmserver.error.exception.InvalidRequestException;
 import ru.practicum.ewmserver.error.model.ApiError;
 
+import javax.persistence.OptimisticLockException;
+
+import static ru.practicum.ewmserver.error.constants.ErrorStrings.CONCURRENT_MODIFICATION;
+
 @RestControllerAdvice
 public class EwmExceptionHandler {
 
@@ -52,6 +57,15 @@ public class EwmExceptionHandler {
         return new ApiError(null, e.getMessage(), "Integrity constraint has been violated", HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(value = {
+            OptimisticLockingFailureException.class,
+            OptimisticLockException.class
+    })
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ApiError handleConcurrentModification(final Exception e) {
+        return new ApiError(null, CONCURRENT_MODIFICATION, "The object was modified concurrently", HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(value = {
             ForbiddenOperationException.class,
     })
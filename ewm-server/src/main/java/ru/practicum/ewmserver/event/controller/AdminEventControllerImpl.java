@@ -2,19 +2,23 @@ package ru.practicum.ewmserver.event.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.ewmserver.event.dto.EventFullDto;
 import ru.practicum.ewmserver.event.dto.UpdateEventAdminRequest;
 import ru.practicum.ewmserver.event.service.AdminEventService;
+import ru.practicum.ewmserver.httpcache.IfMatch;
 import ru.practicum.statdto.dto.Constants;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
@@ -30,8 +34,9 @@ public class AdminEventControllerImpl {
 
     @PatchMapping("/{eventId}")
     public EventFullDto patchEvent(@RequestBody @Valid UpdateEventAdminRequest updateEventAdminRequest,
-                                   @PathVariable @PositiveOrZero int eventId) {
-        return adminEventService.patchEvent(updateEventAdminRequest, eventId);
+                                   @PathVariable @PositiveOrZero int eventId,
+                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return adminEventService.patchEvent(updateEventAdminRequest, eventId, IfMatch.parseVersion(ifMatch));
     }
 
     @GetMapping
@@ -41,7 +46,10 @@ public class AdminEventControllerImpl {
                                         @RequestParam(required = false) @DateTimeFormat(pattern = Constants.DATETIME_FORMAT) LocalDateTime rangeStart,
                                         @RequestParam(required = false) @DateTimeFormat(pattern = Constants.DATETIME_FORMAT) LocalDateTime rangeEnd,
                                         @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                        @RequestParam(defaultValue = "10") @Positive int size) {
-        return adminEventService.getEvents(users, states, categories, rangeStart, rangeEnd, from, size);
+                                        @RequestParam(defaultValue = "10") @Positive int size,
+                                        @RequestParam(required = false) String cursor,
+                                        HttpServletResponse response) {
+        return adminEventService.getEvents(users, states, categories, rangeStart, rangeEnd, from, size, cursor)
+                .writeTo(response);
     }
 }
@@ -1,6 +1,7 @@
 package ru.practicum.ewmserver.event.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -8,6 +9,7 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -19,8 +21,10 @@ import ru.practicum.ewmserver.event.dto.EventShortDto;
 import ru.practicum.ewmserver.event.dto.NewEventDto;
 import ru.practicum.ewmserver.event.dto.UpdateEventUserRequest;
 import ru.practicum.ewmserver.event.service.PrivateEventService;
+import ru.practicum.ewmserver.httpcache.IfMatch;
 import ru.practicum.ewmserver.request.dto.ParticipationRequestDto;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
@@ -43,8 +47,10 @@ public class PrivateEventControllerImpl {
     @GetMapping
     public List<EventShortDto> getUserEvents(@PathVariable @PositiveOrZero int userId,
                                              @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                             @RequestParam(defaultValue = "10") @Positive int size) {
-        return privateEventService.getUserEvents(userId, from, size);
+                                             @RequestParam(defaultValue = "10") @Positive int size,
+                                             @RequestParam(required = false) String cursor,
+                                             HttpServletResponse response) {
+        return privateEventService.getUserEvents(userId, from, size, cursor).writeTo(response);
     }
 
     @GetMapping("/{eventId}")
@@ -56,8 +62,9 @@ public class PrivateEventControllerImpl {
     @PatchMapping("/{eventId}")
     public EventFullDto patchEvent(@RequestBody @Valid UpdateEventUserRequest updateEventUserRequest,
                                    @PathVariable @PositiveOrZero int userId,
-                                   @PathVariable @PositiveOrZero int eventId) {
-        return privateEventService.patchEvent(updateEventUserRequest, userId, eventId);
+                                   @PathVariable @PositiveOrZero int eventId,
+                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return privateEventService.patchEvent(updateEventUserRequest, userId, eventId, IfMatch.parseVersion(ifMatch));
     }
 
     @GetMapping("/{eventId}/requests")
@@ -3,20 +3,24 @@ package ru.practicum.ewmserver.event.controller;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import ru.practicum.ewmserver.event.dto.EventFullDto;
 import ru.practicum.ewmserver.event.dto.EventShortDto;
+import ru.practicum.ewmserver.event.dto.PublicEventSearchRequest;
+import ru.practicum.ewmserver.event.service.EventViewService;
 import ru.practicum.ewmserver.event.service.PublicEventService;
-import ru.practicum.statclient.StatClient;
+import ru.practicum.ewmserver.httpcache.ResponseCache;
+import ru.practicum.statclient.HitSender;
 import ru.practicum.statdto.dto.Constants;
 import ru.practicum.statdto.dto.EndpointHitDto;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 import java.time.LocalDateTime;
@@ -29,7 +33,9 @@ import java.util.List;
 @ComponentScan(basePackages = {"ru.practicum.statclient"})
 public class PublicEventControllerImpl {
     private final PublicEventService publicEventService;
-    private final StatClient statClient;
+    private final HitSender hitSender;
+    private final EventViewService eventViewService;
+    private final ResponseCache responseCache;
 
     @GetMapping
     public List<EventShortDto> getEvents(@RequestParam(defaultValue = "") String text,
@@ -38,28 +44,51 @@ public class PublicEventControllerImpl {
                                          @RequestParam(required = false) @DateTimeFormat(pattern = Constants.DATETIME_FORMAT) LocalDateTime rangeStart,
                                          @RequestParam(required = false) @DateTimeFormat(pattern = Constants.DATETIME_FORMAT) LocalDateTime rangeEnd,
                                          @RequestParam(defaultValue = "false") Boolean onlyAvailable,
+                                         @RequestParam(required = false) Float lat,
+                                         @RequestParam(required = false) Float lon,
+                                         @RequestParam(required = false) Double radius,
                                          @RequestParam(defaultValue = "EVENT_DATE") String sort,
                                          @RequestParam(defaultValue = "0") @PositiveOrZero int from,
                                          @RequestParam(defaultValue = "10") @Positive int size,
-                                         HttpServletRequest request) {
+                                         @RequestParam(required = false) String cursor,
+                                         HttpServletRequest request,
+                                         HttpServletResponse response) {
         final EndpointHitDto endpointHitDto = EndpointHitDto.builder()
                 .app("ewm-main-service")
                 .uri("/events")
                 .ip(request.getRemoteAddr())
                 .timestamp(LocalDateTime.now().format(Constants.FORMATTER)).build();
-        statClient.postEndpointHit(endpointHitDto);
-        return publicEventService.getEvents(text, categories, paid, rangeStart, rangeEnd, onlyAvailable, sort, from, size);
+        hitSender.send(endpointHitDto);
+        final PublicEventSearchRequest searchRequest = PublicEventSearchRequest.builder()
+                .text(text)
+                .categories(categories)
+                .paid(paid)
+                .rangeStart(rangeStart)
+                .rangeEnd(rangeEnd)
+                .onlyAvailable(onlyAvailable)
+                .lat(lat)
+                .lon(lon)
+                .radius(radius)
+                .sort(sort)
+                .from(from)
+                .size(size)
+                .cursor(cursor)
+                .build();
+        return publicEventService.getEvents(searchRequest).writeTo(response);
     }
 
     @GetMapping("/{id}")
-    public EventFullDto getEventById(@PathVariable @PositiveOrZero int id,
-                                     HttpServletRequest request) {
+    public ResponseEntity<byte[]> getEventById(@PathVariable @PositiveOrZero int id,
+                                               HttpServletRequest request) {
         final EndpointHitDto endpointHitDto = EndpointHitDto.builder()
                 .app("ewm-main-service")
                 .uri("/events/" + id)
                 .ip(request.getRemoteAddr())
                 .timestamp(LocalDateTime.now().format(Constants.FORMATTER)).build();
-        statClient.postEndpointHit(endpointHitDto);
-        return publicEventService.getEventById(id);
+        hitSender.send(endpointHitDto);
+        final ResponseEntity<byte[]> event = responseCache.get(ResponseCache.EVENTS, String.valueOf(id),
+                () -> publicEventService.getEventById(id));
+        eventViewService.recordView(id);
+        return event;
     }
 }
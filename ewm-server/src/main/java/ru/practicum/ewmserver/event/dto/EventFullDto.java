@@ -50,5 +50,6 @@ public class EventFullDto {
     @NotBlank
     @Size(max = 255)
     private final String title;
-    private final int views;
+    private final long views;
+    private final long version;
 }
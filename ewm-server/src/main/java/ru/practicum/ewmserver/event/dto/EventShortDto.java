@@ -25,5 +25,5 @@ public class EventShortDto {
     private final UserShortDto initiator;
     private final boolean paid;
     private final String title;
-    private final int views;
+    private final long views;
 }
@@ -0,0 +1,30 @@
+package ru.practicum.ewmserver.event.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Value
+@Builder
+public class PublicEventSearchRequest {
+    @Builder.Default
+    String text = "";
+    List<Integer> categories;
+    @Builder.Default
+    Boolean paid = false;
+    LocalDateTime rangeStart;
+    LocalDateTime rangeEnd;
+    @Builder.Default
+    Boolean onlyAvailable = false;
+    Float lat;
+    Float lon;
+    Double radius;
+    @Builder.Default
+    String sort = "EVENT_DATE";
+    int from;
+    @Builder.Default
+    int size = 10;
+    String cursor;
+}
@@ -1,6 +1,7 @@
 package ru.practicum.ewmserver.event.mapper;
 
 import lombok.experimental.UtilityClass;
+import ru.practicum.ewmserver.category.dto.CategoryDto;
 import ru.practicum.ewmserver.category.mapper.CategoryMapper;
 import ru.practicum.ewmserver.category.model.Category;
 import ru.practicum.ewmserver.event.dto.EventFullDto;
@@ -8,6 +9,8 @@ import ru.practicum.ewmserver.event.dto.EventShortDto;
 import ru.practicum.ewmserver.event.dto.NewEventDto;
 import ru.practicum.ewmserver.event.model.Event;
 import ru.practicum.ewmserver.event.model.EventState;
+import ru.practicum.ewmserver.event.model.EventShortView;
+import ru.practicum.ewmserver.user.dto.UserShortDto;
 import ru.practicum.ewmserver.user.mapper.UserMapper;
 import ru.practicum.ewmserver.user.model.User;
 
@@ -34,12 +37,12 @@ public class EventMapper {
 
     }
 
-    public static EventShortDto createEventShortDto(Event event, int confirmedRequests) {
+    public static EventShortDto createEventShortDto(Event event) {
         return EventShortDto.builder()
                 .id(event.getId())
                 .annotation(event.getAnnotation())
                 .category(CategoryMapper.createCategoryDto(event.getCategory()))
-                .confirmedRequests(confirmedRequests)
+                .confirmedRequests(event.getConfirmedRequests())
                 .eventDate(event.getEventDate())
                 .initiator(UserMapper.createUserShortDto(event.getInitiator()))
                 .paid(event.getPaid())
@@ -48,13 +51,27 @@ public class EventMapper {
                 .build();
     }
 
-    public static EventFullDto createEventFullDto(Event event, int confirmedRequests) {
+    public static EventShortDto createEventShortDto(EventShortView event) {
+        return EventShortDto.builder()
+                .id(event.getId())
+                .annotation(event.getAnnotation())
+                .category(CategoryDto.builder().id(event.getCategoryId()).name(event.getCategoryName()).build())
+                .confirmedRequests(event.getConfirmedRequests())
+                .eventDate(event.getEventDate())
+                .initiator(UserShortDto.builder().id(event.getInitiatorId()).name(event.getInitiatorName()).build())
+                .paid(event.getPaid())
+                .title(event.getTitle())
+                .views(event.getViews())
+                .build();
+    }
+
+    public static EventFullDto createEventFullDto(Event event) {
         return EventFullDto.builder()
                 .id(event.getId())
                 .annotation(event.getAnnotation())
                 .description(event.getDescription())
                 .category(CategoryMapper.createCategoryDto(event.getCategory()))
-                .confirmedRequests(confirmedRequests)
+                .confirmedRequests(event.getConfirmedRequests())
                 .createdOn(event.getCreatedOn())
                 .eventDate(event.getEventDate())
                 .initiator(UserMapper.createUserShortDto(event.getInitiator()))
@@ -66,6 +83,7 @@ public class EventMapper {
                 .title(event.getTitle())
                 .views(event.getViews())
                 .publishedOn(event.getPublishedOn())
+                .version(event.getVersion())
                 .build();
     }
 }
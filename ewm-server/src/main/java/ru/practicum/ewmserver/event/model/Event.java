@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 import ru.practicum.ewmserver.category.model.Category;
 import ru.practicum.ewmserver.user.model.User;
 
@@ -15,8 +16,9 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @Entity
+@DynamicUpdate
 @Table(name = "event")
-public class Event {
+public class Event implements ViewCounted {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private int id;
@@ -24,14 +26,14 @@ public class Event {
     private String annotation;
     @Column(name = "description")
     private String description;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
     private Category category;
     @Column(name = "created")
     private LocalDateTime createdOn;
     @Column(name = "event_date")
     private LocalDateTime eventDate;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "initiator_id")
     private User initiator;
     @Embedded
@@ -40,10 +42,14 @@ public class Event {
             @AttributeOverride(name = "lon", column = @Column(name = "lon")),
     })
     private Location location;
+    @Column(name = "geo_cell")
+    private Integer geoCell;
     @Column(name = "paid")
     private Boolean paid;
     @Column(name = "participant_limit")
     private int participantLimit;
+    @Column(name = "confirmed_requests", insertable = false, updatable = false)
+    private int confirmedRequests;
     @Column(name = "published")
     private LocalDateTime publishedOn;
     @Column(name = "request_moderation")
@@ -53,6 +59,15 @@ public class Event {
     private EventState state;
     @Column(name = "title")
     private String title;
-    @Transient
-    private int views;
+    @Column(name = "views", insertable = false, updatable = false)
+    private long views;
+    @Version
+    @Column(name = "version")
+    private long version;
+
+    @PrePersist
+    @PreUpdate
+    void updateGeoCell() {
+        geoCell = location == null ? null : GeoGrid.cellOf(location.getLat(), location.getLon());
+    }
 }
@@ -0,0 +1,11 @@
+package ru.practicum.ewmserver.event.model;
+
+import lombok.Value;
+
+/**
+ * Published when an event's own fields or its confirmed requests count change, or when the event is deleted.
+ */
+@Value
+public class EventChanged {
+    int eventId;
+}
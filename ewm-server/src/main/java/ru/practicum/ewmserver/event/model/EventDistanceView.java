@@ -0,0 +1,31 @@
+package ru.practicum.ewmserver.event.model;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+@Getter
+@ToString(callSuper = true)
+@EqualsAndHashCode(callSuper = true)
+public class EventDistanceView extends EventShortView {
+    private final double distance;
+
+    public EventDistanceView(double distance,
+                             int id,
+                             String annotation,
+                             int categoryId,
+                             String categoryName,
+                             int confirmedRequests,
+                             LocalDateTime eventDate,
+                             int initiatorId,
+                             String initiatorName,
+                             Boolean paid,
+                             String title,
+                             long views) {
+        super(id, annotation, categoryId, categoryName, confirmedRequests, eventDate, initiatorId, initiatorName,
+                paid, title, views);
+        this.distance = distance;
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.ewmserver.event.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of the columns an EventShortDto is built from, selected without hydrating Event.
+ */
+@Data
+@AllArgsConstructor
+public class EventShortView implements ViewCounted {
+    private int id;
+    private String annotation;
+    private int categoryId;
+    private String categoryName;
+    private int confirmedRequests;
+    private LocalDateTime eventDate;
+    private int initiatorId;
+    private String initiatorName;
+    private Boolean paid;
+    private String title;
+    private long views;
+}
@@ -0,0 +1,76 @@
+package ru.practicum.ewmserver.event.model;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed grid of 0.05-degree cells used to index event locations. The backfill in V10 computes the same cell ids.
+ */
+@UtilityClass
+public class GeoGrid {
+    public static final double KM_PER_DEGREE = 111.32;
+    private static final double CELL_DEGREES = 0.05;
+    private static final int LAT_CELLS = 3600;
+    private static final int LON_CELLS = 7200;
+    private static final int MAX_COVERING_CELLS = 256;
+
+    public static int cellOf(double lat, double lon) {
+        return latIndex(lat) * LON_CELLS + lonIndex(lon);
+    }
+
+    public static double latSpan(double radiusKm) {
+        return radiusKm / KM_PER_DEGREE;
+    }
+
+    public static double lonSpan(double lat, double radiusKm) {
+        return radiusKm / lonKmPerDegree(lat);
+    }
+
+    public static double lonKmPerDegree(double lat) {
+        return KM_PER_DEGREE * Math.max(Math.cos(Math.toRadians(lat)), 0.01);
+    }
+
+    /**
+     * Maps a longitude that ran past the antimeridian back into [-180, 180).
+     */
+    public static double wrapLon(double lon) {
+        return ((lon + 180) % 360 + 360) % 360 - 180;
+    }
+
+    /**
+     * Cells intersecting the bounding box of the circle, or null when there are too many for an IN list to pay off.
+     * Longitude cells wrap around the antimeridian.
+     */
+    public static List<Integer> cellsCovering(double lat, double lon, double radiusKm) {
+        final double latSpan = latSpan(radiusKm);
+        final double lonSpan = lonSpan(lat, radiusKm);
+        final int fromLat = latIndex(lat - latSpan);
+        final int toLat = latIndex(lat + latSpan);
+        final int fromLon = (int) Math.floor((lon - lonSpan + 180) / CELL_DEGREES);
+        final int lonCells = Math.min((int) Math.floor((lon + lonSpan + 180) / CELL_DEGREES) - fromLon + 1, LON_CELLS);
+        if ((long) (toLat - fromLat + 1) * lonCells > MAX_COVERING_CELLS) {
+            return null;
+        }
+        final List<Integer> cells = new ArrayList<>();
+        for (int latIndex = fromLat; latIndex <= toLat; latIndex++) {
+            for (int i = 0; i < lonCells; i++) {
+                cells.add(latIndex * LON_CELLS + Math.floorMod(fromLon + i, LON_CELLS));
+            }
+        }
+        return cells;
+    }
+
+    private static int latIndex(double lat) {
+        return clamp((int) Math.floor((lat + 90) / CELL_DEGREES), LAT_CELLS);
+    }
+
+    private static int lonIndex(double lon) {
+        return clamp((int) Math.floor((lon + 180) / CELL_DEGREES), LON_CELLS);
+    }
+
+    private static int clamp(int index, int cells) {
+        return Math.max(0, Math.min(index, cells - 1));
+    }
+}
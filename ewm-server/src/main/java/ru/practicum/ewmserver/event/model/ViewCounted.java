@@ -0,0 +1,9 @@
+package ru.practicum.ewmserver.event.model;
+
+public interface ViewCounted {
+    int getId();
+
+    long getViews();
+
+    void setViews(long views);
+}
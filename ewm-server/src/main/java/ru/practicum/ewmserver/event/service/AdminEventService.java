@@ -2,13 +2,14 @@ package ru.practicum.ewmserver.event.service;
 
 import ru.practicum.ewmserver.event.dto.EventFullDto;
 import ru.practicum.ewmserver.event.dto.UpdateEventAdminRequest;
+import ru.practicum.ewmserver.pagination.CursorPage;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 
 public interface AdminEventService {
-    EventFullDto patchEvent(UpdateEventAdminRequest updateEventAdminRequest, int eventId);
+    EventFullDto patchEvent(UpdateEventAdminRequest updateEventAdminRequest, int eventId, Long expectedVersion);
 
-    List<EventFullDto> getEvents(List<Integer> users, List<String> states, List<Integer> categories, LocalDateTime rangeStart, LocalDateTime rangeEnd, int from, int size);
+    CursorPage<EventFullDto> getEvents(List<Integer> users, List<String> states, List<Integer> categories, LocalDateTime rangeStart, LocalDateTime rangeEnd, int from, int size, String cursor);
 }
@@ -2,8 +2,9 @@ package ru.practicum.ewmserver.event.service;
 
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.EnumUtils;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.ewmserver.category.model.Category;
@@ -15,34 +16,42 @@ import ru.practicum.ewmserver.event.dto.EventFullDto;
 import ru.practicum.ewmserver.event.dto.UpdateEventAdminRequest;
 import ru.practicum.ewmserver.event.mapper.EventMapper;
 import ru.practicum.ewmserver.event.model.Event;
+import ru.practicum.ewmserver.event.model.EventChanged;
 import ru.practicum.ewmserver.event.model.EventState;
 import ru.practicum.ewmserver.event.model.ModeratorEventState;
+import ru.practicum.ewmserver.event.storage.EventFilter;
 import ru.practicum.ewmserver.event.storage.EventRepository;
-import ru.practicum.ewmserver.request.model.RequestStatus;
-import ru.practicum.ewmserver.request.storage.RequestRepository;
+import ru.practicum.ewmserver.pagination.Cursor;
+import ru.practicum.ewmserver.pagination.CursorPage;
+import ru.practicum.ewmserver.pagination.OffsetPageRequest;
 import ru.practicum.statdto.dto.Constants;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import static ru.practicum.ewmserver.error.constants.ErrorStrings.*;
 
 @Service
 @RequiredArgsConstructor
 public class AdminEventServiceImpl implements AdminEventService {
+    private static final String EVENTS_ORDERING = "admin-events";
+
     private final EventRepository eventRepository;
     private final CategoryRepository categoryRepository;
-    private final RequestRepository requestRepository;
+    private final EventViewService eventViewService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
-    public EventFullDto patchEvent(UpdateEventAdminRequest updateEventAdminRequest, int eventId) {
-        final Event eventFromDb = eventRepository.findById(eventId)
+    public EventFullDto patchEvent(UpdateEventAdminRequest updateEventAdminRequest, int eventId, Long expectedVersion) {
+        final Event eventFromDb = eventRepository.getWithDetailsById(eventId)
                 .orElseThrow(
                         () -> new EntityNotFoundException(String.format(EVENT_NOT_FOUND_BY_ID, eventId))
                 );
+        if (expectedVersion != null && expectedVersion != eventFromDb.getVersion()) {
+            throw new OptimisticLockingFailureException(CONCURRENT_MODIFICATION);
+        }
         if (updateEventAdminRequest.getStateAction() != null) {
             ModeratorEventState action = ModeratorEventState.valueOf(updateEventAdminRequest.getStateAction());
             switch (action) {
@@ -104,21 +113,22 @@ public class AdminEventServiceImpl implements AdminEventService {
         if (updateEventAdminRequest.getParticipantLimit() != null) {
             eventFromDb.setParticipantLimit(updateEventAdminRequest.getParticipantLimit());
         }
-        return EventMapper.createEventFullDto(
-                eventRepository.save(eventFromDb),
-                requestRepository.countRequestByEventIdAndStatus(eventFromDb.getId(), RequestStatus.CONFIRMED)
-        );
+        final Event savedEvent = eventRepository.saveAndFlush(eventFromDb);
+        eventPublisher.publishEvent(new EventChanged(eventId));
+        eventViewService.fillViews(List.of(savedEvent));
+        return EventMapper.createEventFullDto(savedEvent);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<EventFullDto> getEvents(List<Integer> usersIds,
-                                        List<String> states,
-                                        List<Integer> categories,
-                                        LocalDateTime rangeStart,
-                                        LocalDateTime rangeEnd,
-                                        int from,
-                                        int size) {
+    public CursorPage<EventFullDto> getEvents(List<Integer> usersIds,
+                                              List<String> states,
+                                              List<Integer> categories,
+                                              LocalDateTime rangeStart,
+                                              LocalDateTime rangeEnd,
+                                              int from,
+                                              int size,
+                                              String cursor) {
         List<EventState> eventStates = null;
         if (rangeStart == null) {
             rangeStart = LocalDateTime.now();
@@ -145,18 +155,21 @@ public class AdminEventServiceImpl implements AdminEventService {
                 eventStates.add(EventState.valueOf(state));
             }
         }
-        final PageRequest pageRequest = PageRequest.of(from > 0 ? from / size : 0, size);
-        final Page<Event> events = eventRepository.getByUserIdsStatesCategories(
-                usersIds, eventStates, categories,
-                rangeStart, rangeEnd, pageRequest
+        final Cursor after = Cursor.decode(cursor, EVENTS_ORDERING, 1);
+        final EventFilter filter = EventFilter.builder()
+                .initiatorIds(usersIds)
+                .states(eventStates)
+                .categoryIds(categories)
+                .rangeStart(rangeStart)
+                .rangeEnd(rangeEnd)
+                .build();
+        final Slice<Event> events = eventRepository.searchOrderById(
+                filter,
+                after == null ? null : after.getInt(0),
+                OffsetPageRequest.of(after == null ? from : 0, size)
         );
-        return events.getContent().stream()
-                .map(
-                        event -> EventMapper.createEventFullDto(
-                                event,
-                                requestRepository.countRequestByEventIdAndStatus(event.getId(), RequestStatus.CONFIRMED)
-                        )
-                )
-                .collect(Collectors.toList());
+        eventViewService.fillViews(events.getContent());
+        return CursorPage.of(events, event -> Cursor.of(EVENTS_ORDERING, event.getId()))
+                .map(EventMapper::createEventFullDto);
     }
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package ru.practicum.ewmserver.event.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.ewmserver.event.model.EventChanged;
+import ru.practicum.ewmserver.event.storage.EventRepository;
+
+import java.util.List;
+
+/**
+ * Walks the event table in id ranges, each checked and repaired in its own short transaction, so a run never
+ * holds locks or scans the whole table at once.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConfirmedRequestsReconciliationJob {
+    private final EventRepository eventRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    @Value("${ewm.confirmed-requests.reconcile-batch-size:1000}")
+    private int batchSize;
+
+    @Scheduled(
+            initialDelayString = "${ewm.confirmed-requests.reconcile-initial-delay-ms:0}",
+            fixedDelayString = "${ewm.confirmed-requests.reconcile-interval-ms:3600000}"
+    )
+    public void reconcile() {
+        final int maxId = eventRepository.getMaxId();
+        int repaired = 0;
+        for (int fromId = 0; fromId < maxId; fromId += batchSize) {
+            final int from = fromId;
+            final Integer repairedInRange = transactionTemplate.execute(status -> reconcile(from, from + batchSize));
+            repaired += repairedInRange == null ? 0 : repairedInRange;
+        }
+        if (repaired > 0) {
+            log.info("Repaired confirmed_requests for {} events", repaired);
+        }
+    }
+
+    private int reconcile(int fromId, int toId) {
+        final List<Integer> eventIds = eventRepository.getIdsWithConfirmedRequestsDrift(fromId, toId);
+        for (Integer eventId : eventIds) {
+            eventRepository.lockById(eventId);
+            eventRepository.recountConfirmedRequests(eventId);
+            eventPublisher.publishEvent(new EventChanged(eventId));
+        }
+        return eventIds.size();
+    }
+}
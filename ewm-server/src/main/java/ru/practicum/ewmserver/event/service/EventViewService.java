@@ -0,0 +1,13 @@
+package ru.practicum.ewmserver.event.service;
+
+import ru.practicum.ewmserver.event.model.ViewCounted;
+
+import java.util.Collection;
+
+public interface EventViewService {
+    void fillViews(Collection<? extends ViewCounted> events);
+
+    void recordView(int eventId);
+
+    void syncViews();
+}
@@ -0,0 +1,126 @@
+package ru.practicum.ewmserver.event.service;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import ru.practicum.ewmserver.event.model.EventState;
+import ru.practicum.ewmserver.event.model.ViewCounted;
+import ru.practicum.ewmserver.event.storage.EventRepository;
+import ru.practicum.statclient.StatClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class EventViewServiceImpl implements EventViewService {
+    private static final String CACHE_NAME = "event-views";
+
+    private final AsyncLoadingCache<Integer, Long> views;
+    private final Set<Integer> viewedEventIds = ConcurrentHashMap.newKeySet();
+    private final StatClient statClient;
+    private final EventRepository eventRepository;
+    private final boolean approximateViews;
+    private final int syncBatchSize;
+
+    public EventViewServiceImpl(StatClient statClient,
+                                EventRepository eventRepository,
+                                @Value("${ewm.views.approximate:true}") boolean approximateViews,
+                                @Value("${ewm.views.sync-batch-size:500}") int syncBatchSize,
+                                @Value("${ewm.views-cache.maximum-size:10000}") long maximumSize,
+                                @Value("${ewm.views-cache.expire-after-write-ms:30000}") long expireAfterWriteMs,
+                                @Value("${ewm.views-cache.refresh-after-write-ms:5000}") long refreshAfterWriteMs,
+                                ObjectProvider<MeterRegistry> meterRegistry) {
+        this.statClient = statClient;
+        this.eventRepository = eventRepository;
+        this.approximateViews = approximateViews;
+        this.syncBatchSize = syncBatchSize;
+        this.views = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+                .refreshAfterWrite(Duration.ofMillis(refreshAfterWriteMs))
+                .recordStats()
+                .buildAsync(new CacheLoader<>() {
+                    @Override
+                    public Long load(Integer eventId) {
+                        return statClient.getViews(List.of(eventId), approximateViews).get(eventId);
+                    }
+
+                    @Override
+                    public Map<Integer, Long> loadAll(Iterable<? extends Integer> eventIds) {
+                        final List<Integer> ids = new ArrayList<>();
+                        eventIds.forEach(ids::add);
+                        return statClient.getViews(ids, approximateViews);
+                    }
+                });
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, views, CACHE_NAME));
+    }
+
+    @Override
+    public void fillViews(Collection<? extends ViewCounted> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        final Set<Integer> eventIds = events.stream()
+                .map(ViewCounted::getId)
+                .collect(Collectors.toSet());
+        final Map<Integer, Long> eventViews;
+        try {
+            eventViews = views.getAll(eventIds).join();
+        } catch (CompletionException e) {
+            log.warn("Failed to get views for {} events, using stored counters: {}", eventIds.size(), e.getMessage());
+            return;
+        }
+        events.forEach(event -> event.setViews(eventViews.getOrDefault(event.getId(), event.getViews())));
+    }
+
+    @Override
+    public void recordView(int eventId) {
+        viewedEventIds.add(eventId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recordPublishedEvents() {
+        viewedEventIds.addAll(eventRepository.getIdsByState(EventState.PUBLISHED));
+    }
+
+    @Override
+    @Scheduled(
+            initialDelayString = "${ewm.views.sync-interval-ms:10000}",
+            fixedDelayString = "${ewm.views.sync-interval-ms:10000}"
+    )
+    public void syncViews() {
+        final List<Integer> eventIds = new ArrayList<>(viewedEventIds);
+        viewedEventIds.removeAll(eventIds);
+        for (int i = 0; i < eventIds.size(); i += syncBatchSize) {
+            final List<Integer> batch = eventIds.subList(i, Math.min(i + syncBatchSize, eventIds.size()));
+            final Map<Integer, Long> eventViews;
+            try {
+                eventViews = statClient.getViews(batch, approximateViews);
+            } catch (RestClientException e) {
+                log.warn("Failed to sync views for {} events: {}", eventIds.size() - i, e.getMessage());
+                viewedEventIds.addAll(eventIds.subList(i, eventIds.size()));
+                return;
+            }
+            views.synchronous().putAll(eventViews);
+            eventRepository.updateViews(eventViews);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.ewmserver.event.service;
 
 import ru.practicum.ewmserver.event.dto.*;
+import ru.practicum.ewmserver.pagination.CursorPage;
 import ru.practicum.ewmserver.request.dto.ParticipationRequestDto;
 
 import java.util.List;
@@ -8,11 +9,11 @@ import java.util.List;
 public interface PrivateEventService {
     EventFullDto postEvent(NewEventDto newEventDto, int userId);
 
-    List<EventShortDto> getUserEvents(int userId, int from, int size);
+    CursorPage<EventShortDto> getUserEvents(int userId, int from, int size, String cursor);
 
     EventFullDto getEventById(int userId, int eventId);
 
-    EventFullDto patchEvent(UpdateEventUserRequest updateEventUserRequest, int userId, int eventId);
+    EventFullDto patchEvent(UpdateEventUserRequest updateEventUserRequest, int userId, int eventId, Long expectedVersion);
 
     List<ParticipationRequestDto> getRequestsInEvent(int userId, int eventId);
 
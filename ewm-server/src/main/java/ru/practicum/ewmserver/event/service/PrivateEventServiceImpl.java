@@ -1,7 +1,9 @@
 package ru.practicum.ewmserver.event.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.ewmserver.category.model.Category;
@@ -12,11 +14,15 @@ import ru.practicum.ewmserver.error.exception.InvalidRequestException;
 import ru.practicum.ewmserver.event.dto.*;
 import ru.practicum.ewmserver.event.mapper.EventMapper;
 import ru.practicum.ewmserver.event.model.Event;
+import ru.practicum.ewmserver.event.model.EventChanged;
+import ru.practicum.ewmserver.event.model.EventShortView;
 import ru.practicum.ewmserver.event.model.EventState;
 import ru.practicum.ewmserver.event.storage.EventRepository;
+import ru.practicum.ewmserver.pagination.Cursor;
+import ru.practicum.ewmserver.pagination.CursorPage;
+import ru.practicum.ewmserver.pagination.OffsetPageRequest;
 import ru.practicum.ewmserver.request.dto.ParticipationRequestDto;
 import ru.practicum.ewmserver.request.mapper.RequestMapper;
-import ru.practicum.ewmserver.request.model.Request;
 import ru.practicum.ewmserver.request.model.RequestStatus;
 import ru.practicum.ewmserver.request.storage.RequestRepository;
 import ru.practicum.ewmserver.user.model.User;
@@ -31,10 +37,14 @@ import static ru.practicum.ewmserver.error.constants.ErrorStrings.*;
 @Service
 @RequiredArgsConstructor
 public class PrivateEventServiceImpl implements PrivateEventService {
+    private static final String EVENTS_ORDERING = "user-events";
+
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
     private final RequestRepository requestRepository;
+    private final EventViewService eventViewService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -52,26 +62,22 @@ public class PrivateEventServiceImpl implements PrivateEventService {
                 );
         final Event event = EventMapper.createEvent(newEventDto, userFromDb, categoryFromDb);
         final Event eventFromDb = eventRepository.save(event);
-        return EventMapper.createEventFullDto(
-                eventFromDb,
-                requestRepository.countRequestByEventIdAndStatus(eventFromDb.getId(), RequestStatus.CONFIRMED)
-        );
+        return EventMapper.createEventFullDto(eventFromDb);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<EventShortDto> getUserEvents(int userId, int from, int size) {
-        final PageRequest pageRequest = PageRequest.of(from > 0 ? from / size : 0, size);
+    public CursorPage<EventShortDto> getUserEvents(int userId, int from, int size, String cursor) {
         if (!userRepository.existsById(userId)) {
             throw new EntityNotFoundException(String.format(USER_NOT_FOUND_BY_ID, userId));
         }
-        return eventRepository.getByInitiatorId(userId, pageRequest).stream()
-                .map(
-                        event -> EventMapper.createEventShortDto(
-                                event,
-                                requestRepository.countRequestByEventIdAndStatus(event.getId(), RequestStatus.CONFIRMED))
-                )
-                .collect(Collectors.toList());
+        final Cursor after = Cursor.decode(cursor, EVENTS_ORDERING, 1);
+        final Slice<EventShortView> events = after == null
+                ? eventRepository.getByInitiatorId(userId, OffsetPageRequest.of(from, size))
+                : eventRepository.getByInitiatorIdAfter(userId, after.getInt(0), OffsetPageRequest.of(0, size));
+        eventViewService.fillViews(events.getContent());
+        return CursorPage.of(events, event -> Cursor.of(EVENTS_ORDERING, event.getId()))
+                .map(EventMapper::createEventShortDto);
     }
 
     @Override
@@ -80,24 +86,28 @@ public class PrivateEventServiceImpl implements PrivateEventService {
         if (!userRepository.existsById(userId)) {
             throw new EntityNotFoundException(String.format(USER_NOT_FOUND_BY_ID, userId));
         }
-        final Event eventFromDb = eventRepository.findById(eventId)
+        final Event eventFromDb = eventRepository.getWithDetailsById(eventId)
                 .orElseThrow(
                         () -> new EntityNotFoundException(String.format(EVENT_NOT_FOUND_BY_ID, eventId))
                 );
-        return EventMapper.createEventFullDto(
-                eventFromDb,
-                requestRepository.countRequestByEventIdAndStatus(eventFromDb.getId(), RequestStatus.CONFIRMED)
-        );
+        eventViewService.fillViews(List.of(eventFromDb));
+        return EventMapper.createEventFullDto(eventFromDb);
     }
 
     @Override
     @Transactional
-    public EventFullDto patchEvent(UpdateEventUserRequest updateEventUserRequest, int userId, int eventId) {
+    public EventFullDto patchEvent(UpdateEventUserRequest updateEventUserRequest,
+                                   int userId,
+                                   int eventId,
+                                   Long expectedVersion) {
         if (!userRepository.existsById(userId)) {
             throw new EntityNotFoundException(String.format(USER_NOT_FOUND_BY_ID, userId));
         }
-        final Event eventFromDb = eventRepository.findById(eventId)
+        final Event eventFromDb = eventRepository.getWithDetailsById(eventId)
                 .orElseThrow(() -> new EntityNotFoundException(String.format(EVENT_NOT_FOUND_BY_ID, eventId)));
+        if (expectedVersion != null && expectedVersion != eventFromDb.getVersion()) {
+            throw new OptimisticLockingFailureException(CONCURRENT_MODIFICATION);
+        }
         if (eventFromDb.getState().equals(EventState.PUBLISHED)) {
             throw new DataConflictException(PATCH_NOT_PENDING_STATE);
         }
@@ -150,10 +160,9 @@ public class PrivateEventServiceImpl implements PrivateEventService {
         if (updateEventUserRequest.getParticipantLimit() != null) {
             eventFromDb.setParticipantLimit(updateEventUserRequest.getParticipantLimit());
         }
-        return EventMapper.createEventFullDto(
-                eventRepository.save(eventFromDb),
-                requestRepository.countRequestByEventIdAndStatus(eventFromDb.getId(), RequestStatus.CONFIRMED)
-        );
+        final Event savedEvent = eventRepository.saveAndFlush(eventFromDb);
+        eventPublisher.publishEvent(new EventChanged(eventId));
+        return EventMapper.createEventFullDto(savedEvent);
     }
 
     @Override
@@ -178,38 +187,49 @@ public class PrivateEventServiceImpl implements PrivateEventService {
         if (!userRepository.existsById(userId)) {
             throw new EntityNotFoundException(String.format(USER_NOT_FOUND_BY_ID, userId));
         }
-        if (!eventRepository.existsById(eventId)) {
-            throw new EntityNotFoundException(String.format(EVENT_NOT_FOUND_BY_ID, eventId));
+        eventRepository.lockById(eventId)
+                .orElseThrow(() -> new EntityNotFoundException(String.format(EVENT_NOT_FOUND_BY_ID, eventId)));
+        final List<Integer> requestIds = eventRequestStatusUpdateRequest.getRequestIds();
+        if (requestIds == null || requestIds.isEmpty()) {
+            return RequestMapper.createEventRequestStatusUpdateResult(List.of());
         }
-        final List<Request> requests = requestRepository.findAllById(eventRequestStatusUpdateRequest.getRequestIds());
         switch (eventRequestStatusUpdateRequest.getStatus()) {
             case REJECTED:
-                for (Request request : requests) {
-                    if (request.getStatus() == RequestStatus.CONFIRMED) {
-                        throw new DataConflictException("Cannot reject an already confirmed request.");
-                    }
-                    request.setStatus(RequestStatus.REJECTED);
+                if (requestRepository.existsByEventIdAndIdInAndStatus(eventId, requestIds, RequestStatus.CONFIRMED)) {
+                    throw new DataConflictException(CANNOT_REJECT_CONFIRMED_REQUEST);
                 }
+                requestRepository.rejectPending(eventId, requestIds);
                 break;
             case CONFIRMED:
-                for (Request request : requests) {
-                    if (!request.getEvent().getRequestModeration() || request.getEvent().getParticipantLimit() == 0) {
-                        request.setStatus(RequestStatus.CONFIRMED);
-                        continue;
-                    }
-                    final int countRequestByEventIdAndStatus = requestRepository.countRequestByEventIdAndStatus(
-                            request.getEvent().getId(),
-                            RequestStatus.CONFIRMED
-                    );
-                    if (countRequestByEventIdAndStatus >= request.getEvent().getParticipantLimit()) {
-                        request.setStatus(RequestStatus.REJECTED);
-                        throw new DataConflictException("Cant accept request.");
-                    }
-                    request.setStatus(RequestStatus.CONFIRMED);
-                }
+                confirmRequests(eventId, requestIds);
                 break;
+            default:
+                throw new InvalidRequestException(INVALID_STATE + eventRequestStatusUpdateRequest.getStatus());
         }
-        return RequestMapper.createEventRequestStatusUpdateResult(requestRepository.saveAll(requests));
+        return RequestMapper.createEventRequestStatusUpdateResult(
+                requestRepository.getRequestsByEventIdAndIdIn(eventId, requestIds)
+        );
+    }
+
+    private void confirmRequests(int eventId, List<Integer> requestIds) {
+        final Event eventFromDb = eventRepository.findById(eventId)
+                .orElseThrow(() -> new EntityNotFoundException(String.format(EVENT_NOT_FOUND_BY_ID, eventId)));
+        final boolean limited = eventFromDb.getParticipantLimit() != 0;
+        final int capacity = limited
+                ? eventFromDb.getParticipantLimit() - eventFromDb.getConfirmedRequests()
+                : Integer.MAX_VALUE;
+        if (capacity <= 0) {
+            throw new DataConflictException(String.format(PARTICIPANT_LIMIT_REACHED, eventId));
+        }
+        final int confirmed = requestRepository.confirmPending(eventId, requestIds, capacity);
+        if (confirmed == 0) {
+            return;
+        }
+        eventRepository.addConfirmedRequests(eventId, confirmed);
+        if (limited && confirmed == capacity) {
+            requestRepository.rejectAllPending(eventId);
+        }
+        eventPublisher.publishEvent(new EventChanged(eventId));
     }
 
 }
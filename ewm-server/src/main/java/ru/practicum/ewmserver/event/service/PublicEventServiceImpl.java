@@ -1,57 +1,62 @@
 package ru.practicum.ewmserver.event.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.http.ResponseEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.ewmserver.error.exception.EntityNotFoundException;
 import ru.practicum.ewmserver.error.exception.InvalidRequestException;
 import ru.practicum.ewmserver.event.dto.EventFullDto;
 import ru.practicum.ewmserver.event.dto.EventShortDto;
+import ru.practicum.ewmserver.event.dto.PublicEventSearchRequest;
 import ru.practicum.ewmserver.event.mapper.EventMapper;
 import ru.practicum.ewmserver.event.model.Event;
+import ru.practicum.ewmserver.event.model.EventShortView;
 import ru.practicum.ewmserver.event.model.EventState;
+import ru.practicum.ewmserver.event.storage.EventFilter;
 import ru.practicum.ewmserver.event.storage.EventRepository;
-import ru.practicum.ewmserver.request.model.RequestStatus;
-import ru.practicum.ewmserver.request.storage.RequestRepository;
-import ru.practicum.statclient.StatClient;
+import ru.practicum.ewmserver.event.storage.GeoCircle;
+import ru.practicum.ewmserver.pagination.Cursor;
+import ru.practicum.ewmserver.pagination.CursorPage;
+import ru.practicum.ewmserver.pagination.OffsetPageRequest;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Locale;
 
+import static ru.practicum.ewmserver.error.constants.ErrorStrings.DISTANCE_SORT_WITHOUT_LOCATION;
+import static ru.practicum.ewmserver.error.constants.ErrorStrings.INVALID_GEO_PARAMETERS;
 import static ru.practicum.ewmserver.error.constants.ErrorStrings.INVALID_SORTING_PARAMETERS;
 import static ru.practicum.ewmserver.error.constants.ErrorStrings.INVAlID_TIME_PARAMETERS;
 
 @Service
 @RequiredArgsConstructor
 public class PublicEventServiceImpl implements PublicEventService {
+    private static final String SORT_EVENT_DATE = "EVENT_DATE";
+    private static final String SORT_VIEWS = "VIEWS";
+    private static final String SORT_RELEVANCE = "RELEVANCE";
+    private static final String SORT_DISTANCE = "DISTANCE";
+
     private final EventRepository eventRepository;
-    private final RequestRepository requestRepository;
-    private final StatClient statClient;
+    private final EventViewService eventViewService;
+    private final PublishedEventIndex publishedEventIndex;
 
     @Override
     @Transactional(readOnly = true)
-    public List<EventShortDto> getEvents(
-            String text,
-            List<Integer> categories,
-            Boolean paid,
-            LocalDateTime rangeStart,
-            LocalDateTime rangeEnd,
-            Boolean onlyAvailable,
-            String sort,
-            int from,
-            int size) {
-        if (text.isBlank()) {
-            text = "";
-        }
-        if (!sort.equalsIgnoreCase("EVENT_DATE") && !sort.equalsIgnoreCase("VIEWS")) {
+    public CursorPage<EventShortDto> getEvents(PublicEventSearchRequest request) {
+        final String sort = request.getSort();
+        final boolean sortByViews = sort.equalsIgnoreCase(SORT_VIEWS);
+        final boolean sortByDistance = sort.equalsIgnoreCase(SORT_DISTANCE);
+        if (!sortByViews && !sortByDistance && !sort.equalsIgnoreCase(SORT_EVENT_DATE)) {
             throw new InvalidRequestException(INVALID_SORTING_PARAMETERS);
         }
+        final GeoCircle near = createGeoCircle(request.getLat(), request.getLon(), request.getRadius());
+        if (sortByDistance && near == null) {
+            throw new InvalidRequestException(DISTANCE_SORT_WITHOUT_LOCATION);
+        }
+        final String search = createSearchPattern(request.getText());
+        LocalDateTime rangeStart = request.getRangeStart();
+        LocalDateTime rangeEnd = request.getRangeEnd();
         if (rangeStart == null && rangeEnd == null) {
             rangeStart = LocalDateTime.now();
             rangeEnd = rangeStart.plusYears(1000);
@@ -59,46 +64,70 @@ public class PublicEventServiceImpl implements PublicEventService {
         if (rangeStart == null || rangeEnd == null || rangeStart.isAfter(rangeEnd)) {
             throw new InvalidRequestException(INVAlID_TIME_PARAMETERS);
         }
-        final PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size);
-        final Page<Event> events;
-        if (categories != null && categories.isEmpty()) {
-            categories = null;
-        }
-        if (!paid) {
-            if (onlyAvailable) {
-                events = eventRepository.getBySearchAvailable(
-                        EventState.PUBLISHED, text, categories,
-                        rangeStart, rangeEnd, sort, page
-                );
-            } else {
-                events = eventRepository.getBySearch(
-                        EventState.PUBLISHED, text, categories,
-                        rangeStart, rangeEnd, sort, page
-                );
-            }
+        final List<Integer> categories = request.getCategories() == null || request.getCategories().isEmpty()
+                ? null
+                : request.getCategories();
+        final EventFilter filter = EventFilter.builder()
+                .states(List.of(EventState.PUBLISHED))
+                .categoryIds(categories)
+                .searchPattern(search)
+                .paid(request.getPaid() ? Boolean.TRUE : null)
+                .onlyAvailable(request.getOnlyAvailable())
+                .rangeStart(rangeStart)
+                .rangeEnd(rangeEnd)
+                .near(near)
+                .build();
+        final CursorPage<EventShortView> events;
+        if (sortByDistance) {
+            final Cursor after = Cursor.decode(request.getCursor(), SORT_DISTANCE, 2);
+            events = CursorPage.of(
+                    eventRepository.searchOrderByDistance(
+                            filter,
+                            after == null ? null : after.getDouble(0),
+                            after == null ? null : after.getInt(1),
+                            OffsetPageRequest.of(after == null ? request.getFrom() : 0, request.getSize())
+                    ),
+                    event -> Cursor.of(SORT_DISTANCE, event.getDistance(), event.getId())
+            );
+        } else if (sortByViews) {
+            final Cursor after = Cursor.decode(request.getCursor(), SORT_VIEWS, 2);
+            events = CursorPage.of(
+                    eventRepository.searchOrderByViews(
+                            filter,
+                            after == null ? null : after.getLong(0),
+                            after == null ? null : after.getInt(1),
+                            OffsetPageRequest.of(after == null ? request.getFrom() : 0, request.getSize())
+                    ),
+                    event -> Cursor.of(SORT_VIEWS, event.getViews(), event.getId())
+            );
+        } else if (search != null) {
+            final String needle = request.getText().strip().toLowerCase(Locale.ROOT);
+            final Cursor after = Cursor.decode(request.getCursor(), SORT_RELEVANCE, 3);
+            events = CursorPage.of(
+                    eventRepository.searchOrderByRelevance(
+                            filter,
+                            after == null ? null : after.getInt(0),
+                            after == null ? null : after.getDateTime(1),
+                            after == null ? null : after.getInt(2),
+                            OffsetPageRequest.of(after == null ? request.getFrom() : 0, request.getSize())
+                    ),
+                    event -> Cursor.of(SORT_RELEVANCE, relevance(event, needle), event.getEventDate(), event.getId())
+            );
         } else {
-            if (onlyAvailable) {
-                events = eventRepository.getBySearchAndPaidAvailable(
-                        EventState.PUBLISHED, text, categories,
-                        rangeStart, rangeEnd, true, sort, page
-                );
-            } else {
-                events = eventRepository.getBySearchAndPaid(
-                        EventState.PUBLISHED, text, categories,
-                        rangeStart, rangeEnd, true, sort, page
-                );
-            }
+            final Cursor after = Cursor.decode(request.getCursor(), SORT_EVENT_DATE, 2);
+            final LocalDateTime afterDate = after == null ? null : after.getDateTime(0);
+            final Integer afterId = after == null ? null : after.getInt(1);
+            final Pageable page = OffsetPageRequest.of(after == null ? request.getFrom() : 0, request.getSize());
+            events = CursorPage.of(
+                    publishedEventIndex.searchOrderByEventDate(filter, afterDate, afterId, page)
+                            .orElseGet(() -> eventRepository.searchOrderByEventDate(filter, afterDate, afterId, page)),
+                    event -> Cursor.of(SORT_EVENT_DATE, event.getEventDate(), event.getId())
+            );
+        }
+        if (!sortByViews) {
+            eventViewService.fillViews(events.getContent());
         }
-        return events.getContent().stream()
-                .map(
-                        event -> EventMapper.createEventShortDto(
-                                event,
-                                requestRepository.countRequestByEventIdAndStatus(
-                                        event.getId(),
-                                        RequestStatus.CONFIRMED)
-                        )
-                )
-                .collect(Collectors.toList());
+        return events.map(EventMapper::createEventShortDto);
     }
 
     @Override
@@ -108,27 +137,40 @@ public class PublicEventServiceImpl implements PublicEventService {
                 .orElseThrow(
                         () -> new EntityNotFoundException(String.format("Event with id=%d was not found", id))
                 );
-        final List<String> uris = List.of("/events/" + id);
-        final ResponseEntity<Object> responseEntity = statClient.getStat(
-                LocalDateTime.now().minusYears(1000),
-                LocalDateTime.now().plusYears(1000),
-                uris,
-                true
-        );
-        int hits = 0;
-        if (responseEntity.getStatusCode().is2xxSuccessful()) {
-            try {
-                ArrayList<Map> hitsMap = (ArrayList<Map>) responseEntity.getBody();
-                hits = Integer.parseInt(String.valueOf(hitsMap.get(0).getOrDefault("hits", "0")));
-            } catch (NumberFormatException e) {
-                throw new RuntimeException(e);
-            }
+        eventViewService.fillViews(List.of(eventFromDb));
+        return EventMapper.createEventFullDto(eventFromDb);
+    }
+
+    private static GeoCircle createGeoCircle(Float lat, Float lon, Double radius) {
+        if (lat == null && lon == null && radius == null) {
+            return null;
+        }
+        if (lat == null || lon == null || radius == null
+                || Math.abs(lat) > 90 || Math.abs(lon) > 180 || !(radius > 0)) {
+            throw new InvalidRequestException(INVALID_GEO_PARAMETERS);
+        }
+        return new GeoCircle(lat, lon, radius);
+    }
+
+    private static String createSearchPattern(String text) {
+        if (text.isBlank()) {
+            return null;
         }
-        eventFromDb.setViews(hits);
-        return EventMapper.createEventFullDto(
-                eventFromDb,
-                requestRepository.countRequestByEventIdAndStatus(eventFromDb.getId(), RequestStatus.CONFIRMED)
-        );
+        final String escaped = text.strip()
+                .toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
 
+    private static int relevance(EventShortView event, String needle) {
+        if (event.getTitle().toLowerCase(Locale.ROOT).contains(needle)) {
+            return 0;
+        }
+        if (event.getAnnotation().toLowerCase(Locale.ROOT).contains(needle)) {
+            return 1;
+        }
+        return 2;
     }
 }
@@ -0,0 +1,20 @@
+package ru.practicum.ewmserver.event.service;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.ewmserver.event.model.EventShortView;
+import ru.practicum.ewmserver.event.storage.EventFilter;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface PublishedEventIndex {
+    /**
+     * Returns the page ordered by event date and id, or an empty optional if the index is disabled or the filter
+     * needs data it does not hold.
+     */
+    Optional<Slice<EventShortView>> searchOrderByEventDate(EventFilter filter,
+                                                           LocalDateTime afterDate,
+                                                           Integer afterId,
+                                                           Pageable page);
+}
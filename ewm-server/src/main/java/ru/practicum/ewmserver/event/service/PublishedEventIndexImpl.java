@@ -0,0 +1,301 @@
+package ru.practicum.ewmserver.event.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.ewmserver.category.model.CategoryChanged;
+import ru.practicum.ewmserver.event.model.EventChanged;
+import ru.practicum.ewmserver.event.model.EventShortView;
+import ru.practicum.ewmserver.event.model.EventState;
+import ru.practicum.ewmserver.event.model.IndexedEventView;
+import ru.practicum.ewmserver.event.storage.EventFilter;
+import ru.practicum.ewmserver.event.storage.EventRepository;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Keeps published upcoming events as sorted columns, with bitsets per category and for the paid flag. Readers use
+ * an immutable snapshot and never lock. Committed changes only queue the event id, and a category change queues the
+ * ids of its indexed events; a single updater thread drains the queue, re-reads the changed events in one query and
+ * merges them into a new snapshot, dropping rows whose event date has passed or that no longer exist.
+ */
+@Slf4j
+@Service
+public class PublishedEventIndexImpl implements PublishedEventIndex {
+    private static final Comparator<EventShortView> EVENT_DATE_ORDER = Comparator
+            .comparing(EventShortView::getEventDate)
+            .thenComparingInt(EventShortView::getId);
+    private static final long SHUTDOWN_TIMEOUT_MS = 5000;
+    private static final long RETRY_DELAY_MS = 1000;
+
+    private final EventRepository eventRepository;
+    private final boolean enabled;
+    private final BlockingQueue<Integer> changes = new LinkedBlockingQueue<>();
+    private final Thread updater;
+    private volatile boolean running = true;
+    private volatile Snapshot snapshot;
+
+    public PublishedEventIndexImpl(EventRepository eventRepository,
+                                   @Value("${ewm.hot-index.enabled:false}") boolean enabled) {
+        this.eventRepository = eventRepository;
+        this.enabled = enabled;
+        this.updater = new Thread(this::updateLoop, "published-event-index-updater");
+        this.updater.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            updater.start();
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (enabled) {
+            updater.interrupt();
+            updater.join(SHUTDOWN_TIMEOUT_MS);
+        }
+    }
+
+    @Override
+    public Optional<Slice<EventShortView>> searchOrderByEventDate(EventFilter filter,
+                                                                  LocalDateTime afterDate,
+                                                                  Integer afterId,
+                                                                  Pageable page) {
+        final Snapshot current = snapshot;
+        if (current == null || !covers(current, filter)) {
+            return Optional.empty();
+        }
+        return Optional.of(current.search(filter, afterDate, afterId, page));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        if (!enabled) {
+            return;
+        }
+        final LocalDateTime from = LocalDateTime.now();
+        final List<IndexedEventView> events = eventRepository.getIndexedViews(EventState.PUBLISHED, from);
+        snapshot = new Snapshot(from, events);
+        log.info("Indexed {} published events dated from {}", events.size(), from);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChanged change) {
+        if (enabled) {
+            changes.offer(change.getEventId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChanged change) {
+        final Snapshot current = snapshot;
+        if (enabled && current != null) {
+            changes.addAll(current.getIdsByCategory(change.getCategoryId()));
+        }
+    }
+
+    private void updateLoop() {
+        final Set<Integer> changedIds = new HashSet<>();
+        while (running) {
+            try {
+                if (changedIds.isEmpty()) {
+                    changedIds.add(changes.take());
+                }
+                changes.drainTo(changedIds);
+                apply(changedIds);
+                changedIds.clear();
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (RuntimeException e) {
+                log.error("Failed to update the published event index for {} events, retrying", changedIds.size(), e);
+                pause();
+            }
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(RETRY_DELAY_MS);
+        } catch (InterruptedException e) {
+            running = false;
+        }
+    }
+
+    private synchronized void apply(Set<Integer> changedIds) {
+        final Snapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        final LocalDateTime from = LocalDateTime.now();
+        final List<IndexedEventView> changed = eventRepository.getIndexedViews(changedIds, EventState.PUBLISHED, from);
+        final List<IndexedEventView> events = new ArrayList<>(current.rows.length + changed.size());
+        int next = 0;
+        for (int i = current.lowerBound(epochMicros(from), Integer.MIN_VALUE); i < current.rows.length; i++) {
+            final IndexedEventView row = current.rows[i];
+            if (changedIds.contains(row.getId())) {
+                continue;
+            }
+            while (next < changed.size() && EVENT_DATE_ORDER.compare(changed.get(next), row) < 0) {
+                events.add(changed.get(next++));
+            }
+            events.add(row);
+        }
+        events.addAll(changed.subList(next, changed.size()));
+        snapshot = new Snapshot(from, events);
+    }
+
+    private static boolean covers(Snapshot snapshot, EventFilter filter) {
+        return filter.getSearchPattern() == null
+                && filter.getNear() == null
+                && (filter.getInitiatorIds() == null || filter.getInitiatorIds().isEmpty())
+                && List.of(EventState.PUBLISHED).equals(filter.getStates())
+                && filter.getRangeStart() != null
+                && !filter.getRangeStart().isBefore(snapshot.from);
+    }
+
+    private static long epochMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + dateTime.getNano() / 1_000;
+    }
+
+    private static EventShortView copy(EventShortView row) {
+        return new EventShortView(row.getId(), row.getAnnotation(), row.getCategoryId(), row.getCategoryName(),
+                row.getConfirmedRequests(), row.getEventDate(), row.getInitiatorId(), row.getInitiatorName(),
+                row.getPaid(), row.getTitle(), row.getViews());
+    }
+
+    private static final class Snapshot {
+        private final LocalDateTime from;
+        private final IndexedEventView[] rows;
+        private final int[] ids;
+        private final long[] eventDates;
+        private final int[] participantLimits;
+        private final int[] confirmedRequests;
+        private final BitSet paid = new BitSet();
+        private final Map<Integer, BitSet> byCategory = new HashMap<>();
+
+        private Snapshot(LocalDateTime from, List<IndexedEventView> events) {
+            this.from = from;
+            rows = events.toArray(new IndexedEventView[0]);
+            ids = new int[rows.length];
+            eventDates = new long[rows.length];
+            participantLimits = new int[rows.length];
+            confirmedRequests = new int[rows.length];
+            for (int i = 0; i < rows.length; i++) {
+                final IndexedEventView row = rows[i];
+                ids[i] = row.getId();
+                eventDates[i] = epochMicros(row.getEventDate());
+                participantLimits[i] = row.getParticipantLimit();
+                confirmedRequests[i] = row.getConfirmedRequests();
+                paid.set(i, Boolean.TRUE.equals(row.getPaid()));
+                byCategory.computeIfAbsent(row.getCategoryId(), id -> new BitSet()).set(i);
+            }
+        }
+
+        private Slice<EventShortView> search(EventFilter filter,
+                                             LocalDateTime afterDate,
+                                             Integer afterId,
+                                             Pageable page) {
+            final BitSet candidates = candidates(filter);
+            final long end = filter.getRangeEnd() == null ? Long.MAX_VALUE : epochMicros(filter.getRangeEnd());
+            long skip = afterId == null ? page.getOffset() : 0;
+            final List<EventShortView> content = new ArrayList<>();
+            int i = afterId == null
+                    ? lowerBound(epochMicros(filter.getRangeStart()), Integer.MIN_VALUE)
+                    : lowerBound(epochMicros(afterDate), afterId + 1);
+            for (i = next(candidates, i); i < rows.length && eventDates[i] <= end; i = next(candidates, i + 1)) {
+                if (filter.isOnlyAvailable() && participantLimits[i] != 0 && confirmedRequests[i] >= participantLimits[i]) {
+                    continue;
+                }
+                if (skip > 0) {
+                    skip--;
+                    continue;
+                }
+                if (content.size() == page.getPageSize()) {
+                    return new SliceImpl<>(content, page, true);
+                }
+                content.add(copy(rows[i]));
+            }
+            return new SliceImpl<>(content, page, false);
+        }
+
+        private List<Integer> getIdsByCategory(int categoryId) {
+            final BitSet category = byCategory.getOrDefault(categoryId, new BitSet());
+            final List<Integer> categoryIds = new ArrayList<>(category.cardinality());
+            category.stream().forEach(i -> categoryIds.add(ids[i]));
+            return categoryIds;
+        }
+
+        private BitSet candidates(EventFilter filter) {
+            BitSet candidates = null;
+            if (filter.getCategoryIds() != null && !filter.getCategoryIds().isEmpty()) {
+                candidates = new BitSet(rows.length);
+                for (Integer categoryId : filter.getCategoryIds()) {
+                    final BitSet category = byCategory.get(categoryId);
+                    if (category != null) {
+                        candidates.or(category);
+                    }
+                }
+            }
+            if (filter.getPaid() != null) {
+                if (candidates == null) {
+                    candidates = new BitSet(rows.length);
+                    candidates.set(0, rows.length);
+                }
+                if (filter.getPaid()) {
+                    candidates.and(paid);
+                } else {
+                    candidates.andNot(paid);
+                }
+            }
+            return candidates;
+        }
+
+        private int next(BitSet candidates, int from) {
+            if (candidates == null) {
+                return from;
+            }
+            final int next = candidates.nextSetBit(from);
+            return next < 0 ? rows.length : next;
+        }
+
+        /**
+         * Index of the first row at or after (eventDate, id).
+         */
+        private int lowerBound(long eventDate, int id) {
+            int low = 0;
+            int high = rows.length;
+            while (low < high) {
+                final int middle = (low + high) >>> 1;
+                if (eventDates[middle] < eventDate || (eventDates[middle] == eventDate && ids[middle] < id)) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.ewmserver.event.storage;
+
+import lombok.Builder;
+import lombok.Value;
+import ru.practicum.ewmserver.event.model.EventState;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Event search criteria. Null or empty fields are left out of the generated query.
+ */
+@Value
+@Builder
+public class EventFilter {
+    List<Integer> initiatorIds;
+    List<EventState> states;
+    List<Integer> categoryIds;
+    String searchPattern;
+    Boolean paid;
+    boolean onlyAvailable;
+    LocalDateTime rangeStart;
+    LocalDateTime rangeEnd;
+    GeoCircle near;
+}
@@ -1,104 +1,118 @@
 package ru.practicum.ewmserver.event.storage;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.ewmserver.event.model.Event;
+import ru.practicum.ewmserver.event.model.EventShortView;
 import ru.practicum.ewmserver.event.model.EventState;
+import ru.practicum.ewmserver.event.model.IndexedEventView;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface EventRepository extends JpaRepository<Event, Integer> {
-    @Query("select e " +
-            "from Event as e " +
-            "where (:userIds is null or e.initiator.id in :userIds) " +
-            "and (:states is null or e.state in :states) " +
-            "and (:categoryIds is null or e.category.id in :categoryIds) " +
-            "and (e.eventDate between :start and :end) ")
-    Page<Event> getByUserIdsStatesCategories(@Param("userIds") List<Integer> userIds,
-                                             @Param("states") List<EventState> states,
-                                             @Param("categoryIds") List<Integer> categoryIds,
-                                             @Param("start") LocalDateTime start,
-                                             @Param("end") LocalDateTime end,
-                                             Pageable page);
-
-    @Query("select e " +
-            "from Event as e " +
-            "left join Request as r on r.event = e and r.status = 'CONFIRMED' " +
-            "where e.state = :state " +
-            "and e.annotation like %:search% or e.description like %:search% " +
-            "and (:category is null or e.category.id in :category) " +
-            "and e.eventDate between :start and :end " +
-            "group by e " +
-            "having count (r) < e.participantLimit " +
-            "order by :sort ")
-    Page<Event> getBySearchAvailable(@Param("state") EventState eventState,
-                                     @Param("search") String search,
-                                     @Param("category") List<Integer> categoryIds,
-                                     @Param("start") LocalDateTime start,
-                                     @Param("end") LocalDateTime end,
-                                     @Param("sort") String sort,
-                                     Pageable page);
-
-    @Query("select e " +
-            "from Event as e " +
-            "where e.state = :state " +
-            "and e.annotation like %:search% or e.description like %:search% " +
-            "and (:category is null or e.category.id in :category) " +
-            "and e.eventDate between :start and :end " +
-            "order by :sort ")
-    Page<Event> getBySearch(@Param("state") EventState eventState,
-                            @Param("search") String search,
-                            @Param("category") List<Integer> categoryIds,
-                            @Param("start") LocalDateTime start,
-                            @Param("end") LocalDateTime end,
-                            @Param("sort") String sort,
-                            Pageable page);
-
-    @Query("select e " +
+public interface EventRepository extends JpaRepository<Event, Integer>, EventRepositoryCustom {
+    String SHORT_VIEW_FIELDS = "e.id, e.annotation, c.id, c.name, e.confirmedRequests, e.eventDate, " +
+            "u.id, u.name, e.paid, e.title, e.views";
+
+    String SELECT_SHORT_VIEW = "select new ru.practicum.ewmserver.event.model.EventShortView(" + SHORT_VIEW_FIELDS + ") " +
             "from Event as e " +
-            "left join Request as r on r.event = e and r.status = 'CONFIRMED' " +
-            "where e.state = :state " +
-            "and e.annotation like %:search% or e.description like %:search% " +
-            "and (:category is null or e.category.id in :category) " +
-            "and e.eventDate between :start and :end " +
-            "and e.paid = :paid " +
-            "group by e " +
-            "having count (r) < e.participantLimit " +
-            "order by :sort ")
-    Page<Event> getBySearchAndPaidAvailable(@Param("state") EventState eventState,
-                                            @Param("search") String search,
-                                            @Param("category") List<Integer> categoryIds,
-                                            @Param("start") LocalDateTime start,
-                                            @Param("end") LocalDateTime end,
-                                            @Param("paid") Boolean paid,
-                                            @Param("sort") String sort,
-                                            Pageable page);
-
-    @Query("select e " +
+            "join e.category as c " +
+            "join e.initiator as u ";
+
+    String SELECT_INDEXED_VIEW = "select new ru.practicum.ewmserver.event.model.IndexedEventView(e.participantLimit, " +
+            SHORT_VIEW_FIELDS + ") " +
             "from Event as e " +
-            "where e.state = :state " +
-            "and e.annotation like %:search% or e.description like %:search% " +
-            "and (:category is null or e.category.id in :category) " +
-            "and e.eventDate between :start and :end " +
-            "and e.paid = :paid " +
-            "order by :sort ")
-    Page<Event> getBySearchAndPaid(@Param("state") EventState eventState,
-                                   @Param("search") String search,
-                                   @Param("category") List<Integer> categoryIds,
-                                   @Param("start") LocalDateTime start,
-                                   @Param("end") LocalDateTime end,
-                                   @Param("paid") Boolean paid,
-                                   @Param("sort") String sort,
-                                   Pageable page);
+            "join e.category as c " +
+            "join e.initiator as u ";
+
+    @Query(SELECT_INDEXED_VIEW + "where e.state = :state and e.eventDate >= :from order by e.eventDate, e.id")
+    List<IndexedEventView> getIndexedViews(@Param("state") EventState state, @Param("from") LocalDateTime from);
+
+    @Query(SELECT_INDEXED_VIEW + "where e.id in :ids and e.state = :state and e.eventDate >= :from " +
+            "order by e.eventDate, e.id")
+    List<IndexedEventView> getIndexedViews(@Param("ids") Collection<Integer> ids,
+                                           @Param("state") EventState state,
+                                           @Param("from") LocalDateTime from);
+
+    @Query("select e.id from Event as e where e.state = :state")
+    List<Integer> getIdsByState(@Param("state") EventState state);
+
+    @Query("select e.id from Event as e where e.initiator.id = :initiatorId")
+    List<Integer> getIdsByInitiatorId(@Param("initiatorId") int initiatorId);
+
+    @Query("select e.id from Event as e where e.id in :ids")
+    List<Integer> getExistingIds(@Param("ids") Collection<Integer> ids);
 
+    @EntityGraph(attributePaths = {"category", "initiator"})
     Optional<Event> getByIdAndState(int eventId, EventState state);
 
-    Page<Event> getByInitiatorId(int initiatorId, Pageable page);
+    @EntityGraph(attributePaths = {"category", "initiator"})
+    Optional<Event> getWithDetailsById(int eventId);
+
+    @Query(SELECT_SHORT_VIEW +
+            "where e.initiator.id = :initiatorId " +
+            "order by e.id")
+    Slice<EventShortView> getByInitiatorId(@Param("initiatorId") int initiatorId, Pageable page);
+
+    @Query(SELECT_SHORT_VIEW +
+            "where e.initiator.id = :initiatorId " +
+            "and e.id > :afterId " +
+            "order by e.id")
+    Slice<EventShortView> getByInitiatorIdAfter(@Param("initiatorId") int initiatorId,
+                                                @Param("afterId") int afterId,
+                                                Pageable page);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Event as e " +
+            "set e.confirmedRequests = e.confirmedRequests + 1 " +
+            "where e.id = :eventId " +
+            "and (e.participantLimit = 0 or e.confirmedRequests < e.participantLimit)")
+    int reserveConfirmedRequest(@Param("eventId") int eventId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Event as e " +
+            "set e.confirmedRequests = e.confirmedRequests + :count " +
+            "where e.id = :eventId")
+    int addConfirmedRequests(@Param("eventId") int eventId, @Param("count") int count);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Event as e " +
+            "set e.confirmedRequests = e.confirmedRequests - 1 " +
+            "where e.id = :eventId " +
+            "and e.confirmedRequests > 0")
+    int releaseConfirmedRequest(@Param("eventId") int eventId);
+
+    @Query("select coalesce(max(e.id), 0) from Event as e")
+    int getMaxId();
+
+    @Query(value = "select e.id " +
+            "from event as e " +
+            "left join (" +
+            "select r.event_id, count(*) as confirmed from request as r " +
+            "where r.status = 'CONFIRMED' and r.event_id > :fromId and r.event_id <= :toId " +
+            "group by r.event_id) as c on c.event_id = e.id " +
+            "where e.id > :fromId and e.id <= :toId " +
+            "and e.confirmed_requests <> coalesce(c.confirmed, 0)",
+            nativeQuery = true)
+    List<Integer> getIdsWithConfirmedRequestsDrift(@Param("fromId") int fromId, @Param("toId") int toId);
+
+    @Query(value = "select e.id from event as e where e.id = :eventId for update", nativeQuery = true)
+    Optional<Integer> lockById(@Param("eventId") int eventId);
+
+    @Modifying
+    @Query("update Event as e " +
+            "set e.confirmedRequests = (" +
+            "select count(r.id) from Request as r " +
+            "where r.event.id = :eventId and r.status = ru.practicum.ewmserver.request.model.RequestStatus.CONFIRMED) " +
+            "where e.id = :eventId")
+    int recountConfirmedRequests(@Param("eventId") int eventId);
 }
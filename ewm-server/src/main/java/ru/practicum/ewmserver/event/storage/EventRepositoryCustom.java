@@ -0,0 +1,34 @@
+package ru.practicum.ewmserver.event.storage;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.ewmserver.event.model.Event;
+import ru.practicum.ewmserver.event.model.EventDistanceView;
+import ru.practicum.ewmserver.event.model.EventShortView;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public interface EventRepositoryCustom {
+    void updateViews(Map<Integer, Long> views);
+
+    Slice<Event> searchOrderById(EventFilter filter, Integer afterId, Pageable page);
+
+    Slice<EventShortView> searchOrderByEventDate(EventFilter filter,
+                                                 LocalDateTime afterDate,
+                                                 Integer afterId,
+                                                 Pageable page);
+
+    Slice<EventShortView> searchOrderByRelevance(EventFilter filter,
+                                                 Integer afterRank,
+                                                 LocalDateTime afterDate,
+                                                 Integer afterId,
+                                                 Pageable page);
+
+    Slice<EventShortView> searchOrderByViews(EventFilter filter, Long afterViews, Integer afterId, Pageable page);
+
+    Slice<EventDistanceView> searchOrderByDistance(EventFilter filter,
+                                                   Double afterDistance,
+                                                   Integer afterId,
+                                                   Pageable page);
+}
@@ -0,0 +1,340 @@
+package ru.practicum.ewmserver.event.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.ewmserver.category.model.Category;
+import ru.practicum.ewmserver.event.model.Event;
+import ru.practicum.ewmserver.event.model.EventDistanceView;
+import ru.practicum.ewmserver.event.model.EventShortView;
+import ru.practicum.ewmserver.event.model.GeoGrid;
+import ru.practicum.ewmserver.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.ParameterExpression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class EventRepositoryImpl implements EventRepositoryCustom {
+    private static final String UPDATE_VIEWS = "update event set views = ? where id = ?";
+    private static final char LIKE_ESCAPE = '\\';
+
+    private final JdbcTemplate jdbcTemplate;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void updateViews(Map<Integer, Long> views) {
+        final List<Object[]> batch = new TreeMap<>(views).entrySet().stream()
+                .map(entry -> new Object[]{entry.getValue(), entry.getKey()})
+                .collect(Collectors.toList());
+        jdbcTemplate.batchUpdate(UPDATE_VIEWS, batch);
+    }
+
+    @Override
+    public Slice<Event> searchOrderById(EventFilter filter, Integer afterId, Pageable page) {
+        final Search<Event> search = new Search<>(Event.class, filter);
+        search.event.fetch("category");
+        search.event.fetch("initiator");
+        search.query.select(search.event);
+        if (afterId != null) {
+            search.where(search.cb.greaterThan(search.id(), search.parameter(Integer.class, "afterId", afterId)));
+        }
+        search.query.orderBy(search.cb.asc(search.id()));
+        return search.fetch(page);
+    }
+
+    @Override
+    public Slice<EventShortView> searchOrderByEventDate(EventFilter filter,
+                                                        LocalDateTime afterDate,
+                                                        Integer afterId,
+                                                        Pageable page) {
+        final Search<EventShortView> search = shortViewSearch(filter);
+        if (afterId != null) {
+            search.where(search.after(search.eventDate(), afterDate, search.id(), afterId));
+        }
+        search.query.orderBy(search.cb.asc(search.eventDate()), search.cb.asc(search.id()));
+        return search.fetch(page);
+    }
+
+    @Override
+    public Slice<EventShortView> searchOrderByRelevance(EventFilter filter,
+                                                        Integer afterRank,
+                                                        LocalDateTime afterDate,
+                                                        Integer afterId,
+                                                        Pageable page) {
+        final Search<EventShortView> search = shortViewSearch(filter);
+        final Expression<Integer> rank = search.relevance();
+        if (afterRank != null) {
+            final ParameterExpression<Integer> rankParameter = search.parameter(Integer.class, "afterRank", afterRank);
+            search.where(search.cb.or(
+                    search.cb.greaterThan(rank, rankParameter),
+                    search.cb.and(
+                            search.cb.equal(rank, rankParameter),
+                            search.after(search.eventDate(), afterDate, search.id(), afterId)
+                    )
+            ));
+        }
+        search.query.orderBy(search.cb.asc(rank), search.cb.asc(search.eventDate()), search.cb.asc(search.id()));
+        return search.fetch(page);
+    }
+
+    @Override
+    public Slice<EventShortView> searchOrderByViews(EventFilter filter, Long afterViews, Integer afterId, Pageable page) {
+        final Search<EventShortView> search = shortViewSearch(filter);
+        final Path<Long> views = search.event.get("views");
+        if (afterViews != null) {
+            final ParameterExpression<Long> viewsParameter = search.parameter(Long.class, "afterViews", afterViews);
+            search.where(search.cb.lessThanOrEqualTo(views, viewsParameter));
+            search.where(search.cb.or(
+                    search.cb.lessThan(views, viewsParameter),
+                    search.cb.lessThan(search.id(), search.parameter(Integer.class, "afterId", afterId))
+            ));
+        }
+        search.query.orderBy(search.cb.desc(views), search.cb.desc(search.id()));
+        return search.fetch(page);
+    }
+
+    @Override
+    public Slice<EventDistanceView> searchOrderByDistance(EventFilter filter,
+                                                          Double afterDistance,
+                                                          Integer afterId,
+                                                          Pageable page) {
+        final Search<EventDistanceView> search = new Search<>(EventDistanceView.class, filter);
+        final Expression<Double> distance = search.cb.sqrt(search.squaredDistance);
+        search.query.select(search.cb.construct(EventDistanceView.class, search.shortViewFields(distance)));
+        if (afterId != null) {
+            final ParameterExpression<Double> distanceParameter = search.parameter(
+                    Double.class, "afterDistance", afterDistance
+            );
+            search.where(search.cb.or(
+                    search.cb.greaterThan(distance, distanceParameter),
+                    search.cb.and(
+                            search.cb.equal(distance, distanceParameter),
+                            search.cb.greaterThan(search.id(), search.parameter(Integer.class, "afterId", afterId))
+                    )
+            ));
+        }
+        search.query.orderBy(search.cb.asc(distance), search.cb.asc(search.id()));
+        return search.fetch(page);
+    }
+
+    private Search<EventShortView> shortViewSearch(EventFilter filter) {
+        final Search<EventShortView> search = new Search<>(EventShortView.class, filter);
+        search.query.select(search.cb.construct(EventShortView.class, search.shortViewFields()));
+        return search;
+    }
+
+    /**
+     * Builds one query from the filter, adding only the predicates that were supplied. All values are bound as
+     * parameters, so equal combinations of predicates produce the same SQL.
+     */
+    private final class Search<T> {
+        private final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        private final CriteriaQuery<T> query;
+        private final Root<Event> event;
+        private final List<Predicate> predicates = new ArrayList<>();
+        private final Map<ParameterExpression<?>, Object> parameters = new LinkedHashMap<>();
+        private ParameterExpression<String> pattern;
+        private Expression<Double> squaredDistance;
+
+        private Search(Class<T> type, EventFilter filter) {
+            query = cb.createQuery(type);
+            event = query.from(Event.class);
+            if (isPresent(filter.getInitiatorIds())) {
+                where(event.get("initiator").get("id").in(collection("initiatorIds", filter.getInitiatorIds())));
+            }
+            if (isPresent(filter.getStates())) {
+                where(event.get("state").in(collection("states", filter.getStates())));
+            }
+            if (isPresent(filter.getCategoryIds())) {
+                where(event.get("category").get("id").in(collection("categoryIds", filter.getCategoryIds())));
+            }
+            if (filter.getSearchPattern() != null) {
+                pattern = parameter(String.class, "search", filter.getSearchPattern());
+                where(cb.or(
+                        cb.like(cb.lower(event.get("title")), pattern, LIKE_ESCAPE),
+                        cb.like(cb.lower(event.get("annotation")), pattern, LIKE_ESCAPE),
+                        cb.like(cb.lower(event.get("description")), pattern, LIKE_ESCAPE)
+                ));
+            }
+            if (filter.getPaid() != null) {
+                where(cb.equal(event.get("paid"), parameter(Boolean.class, "paid", filter.getPaid())));
+            }
+            if (filter.isOnlyAvailable()) {
+                final Path<Integer> limit = event.get("participantLimit");
+                where(cb.or(cb.equal(limit, 0), cb.lessThan(event.get("confirmedRequests"), limit)));
+            }
+            if (filter.getNear() != null) {
+                near(filter.getNear());
+            }
+            if (filter.getRangeStart() != null) {
+                where(cb.greaterThanOrEqualTo(
+                        eventDate(), parameter(LocalDateTime.class, "rangeStart", filter.getRangeStart())
+                ));
+            }
+            if (filter.getRangeEnd() != null) {
+                where(cb.lessThanOrEqualTo(
+                        eventDate(), parameter(LocalDateTime.class, "rangeEnd", filter.getRangeEnd())
+                ));
+            }
+        }
+
+        /**
+         * Narrows to the grid cells around the circle, then to its bounding box, then to the circle itself using an
+         * equirectangular distance, which is accurate to well under a percent at city scale. A box that crosses the
+         * antimeridian is split into the two longitude ranges on either side of it.
+         */
+        private void near(GeoCircle near) {
+            final List<Integer> cells = GeoGrid.cellsCovering(near.getLat(), near.getLon(), near.getRadiusKm());
+            if (cells != null) {
+                where(event.get("geoCell").in(collection("geoCells", cells)));
+            }
+            final Expression<Double> lat = event.get("location").get("lat").as(Double.class);
+            final Expression<Double> lon = event.get("location").get("lon").as(Double.class);
+            final double latSpan = GeoGrid.latSpan(near.getRadiusKm());
+            final double lonSpan = GeoGrid.lonSpan(near.getLat(), near.getRadiusKm());
+            where(cb.between(
+                    lat,
+                    parameter(Double.class, "minLat", near.getLat() - latSpan),
+                    parameter(Double.class, "maxLat", near.getLat() + latSpan)
+            ));
+            final double minLon = near.getLon() - lonSpan;
+            final double maxLon = near.getLon() + lonSpan;
+            if (minLon >= -180 && maxLon <= 180) {
+                where(cb.between(
+                        lon,
+                        parameter(Double.class, "minLon", minLon),
+                        parameter(Double.class, "maxLon", maxLon)
+                ));
+            } else if (maxLon - minLon < 360) {
+                where(cb.or(
+                        cb.greaterThanOrEqualTo(lon, parameter(Double.class, "minLon", GeoGrid.wrapLon(minLon))),
+                        cb.lessThanOrEqualTo(lon, parameter(Double.class, "maxLon", GeoGrid.wrapLon(maxLon)))
+                ));
+            }
+            final Expression<Double> dy = cb.prod(
+                    cb.diff(lat, parameter(Double.class, "lat", near.getLat())),
+                    GeoGrid.KM_PER_DEGREE
+            );
+            final Expression<Double> lonDiff = cb.abs(cb.diff(lon, parameter(Double.class, "lon", near.getLon())));
+            final Expression<Double> dx = cb.prod(
+                    cb.<Double>selectCase()
+                            .when(cb.gt(lonDiff, 180), cb.diff(360.0, lonDiff))
+                            .otherwise(lonDiff),
+                    parameter(Double.class, "lonKmPerDegree", GeoGrid.lonKmPerDegree(near.getLat()))
+            );
+            squaredDistance = cb.sum(cb.prod(dy, dy), cb.prod(dx, dx));
+            where(cb.lessThanOrEqualTo(
+                    squaredDistance,
+                    parameter(Double.class, "squaredRadius", near.getRadiusKm() * near.getRadiusKm())
+            ));
+        }
+
+        private Selection<?>[] shortViewFields(Selection<?>... leading) {
+            final Join<Event, Category> category = event.join("category");
+            final Join<Event, User> initiator = event.join("initiator");
+            final List<Selection<?>> fields = new ArrayList<>(List.of(leading));
+            fields.addAll(List.of(
+                    id(),
+                    event.get("annotation"),
+                    category.get("id"),
+                    category.get("name"),
+                    event.get("confirmedRequests"),
+                    eventDate(),
+                    initiator.get("id"),
+                    initiator.get("name"),
+                    event.get("paid"),
+                    event.get("title"),
+                    event.get("views")
+            ));
+            return fields.toArray(new Selection<?>[0]);
+        }
+
+        private Path<Integer> id() {
+            return event.get("id");
+        }
+
+        private Path<LocalDateTime> eventDate() {
+            return event.get("eventDate");
+        }
+
+        private Expression<Integer> relevance() {
+            return cb.<Integer>selectCase()
+                    .when(cb.like(cb.lower(event.get("title")), pattern, LIKE_ESCAPE), 0)
+                    .when(cb.like(cb.lower(event.get("annotation")), pattern, LIKE_ESCAPE), 1)
+                    .otherwise(2);
+        }
+
+        /**
+         * Keyset condition for an ascending (date, id) ordering. The leading range predicate lets the
+         * (state, event_date, id) index bound the scan.
+         */
+        private Predicate after(Path<LocalDateTime> date, LocalDateTime afterDate, Path<Integer> id, Integer afterId) {
+            final ParameterExpression<LocalDateTime> dateParameter = parameter(LocalDateTime.class, "afterDate", afterDate);
+            return cb.and(
+                    cb.greaterThanOrEqualTo(date, dateParameter),
+                    cb.or(
+                            cb.greaterThan(date, dateParameter),
+                            cb.greaterThan(id, parameter(Integer.class, "afterId", afterId))
+                    )
+            );
+        }
+
+        private void where(Predicate predicate) {
+            predicates.add(predicate);
+        }
+
+        @SuppressWarnings("unchecked")
+        private <P> ParameterExpression<P> parameter(Class<P> type, String name, P value) {
+            for (ParameterExpression<?> parameter : parameters.keySet()) {
+                if (name.equals(parameter.getName())) {
+                    return (ParameterExpression<P>) parameter;
+                }
+            }
+            final ParameterExpression<P> parameter = cb.parameter(type, name);
+            parameters.put(parameter, value);
+            return parameter;
+        }
+
+        @SuppressWarnings("rawtypes")
+        private ParameterExpression<Collection> collection(String name, Collection<?> value) {
+            return parameter(Collection.class, name, value);
+        }
+
+        @SuppressWarnings("unchecked")
+        private Slice<T> fetch(Pageable page) {
+            query.where(predicates.toArray(new Predicate[0]));
+            final TypedQuery<T> typedQuery = entityManager.createQuery(query)
+                    .setFirstResult((int) page.getOffset())
+                    .setMaxResults(page.getPageSize() + 1);
+            parameters.forEach((parameter, value) -> typedQuery.setParameter((ParameterExpression<Object>) parameter, value));
+            final List<T> content = typedQuery.getResultList();
+            final boolean hasNext = content.size() > page.getPageSize();
+            return new SliceImpl<>(hasNext ? content.subList(0, page.getPageSize()) : content, page, hasNext);
+        }
+
+        private boolean isPresent(Collection<?> values) {
+            return values != null && !values.isEmpty();
+        }
+    }
+}
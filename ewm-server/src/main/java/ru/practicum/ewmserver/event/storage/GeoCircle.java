@@ -0,0 +1,10 @@
+package ru.practicum.ewmserver.event.storage;
+
+import lombok.Value;
+
+@Value
+public class GeoCircle {
+    double lat;
+    double lon;
+    double radiusKm;
+}
@@ -0,0 +1,31 @@
+package ru.practicum.ewmserver.httpcache;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.ewmserver.error.exception.InvalidRequestException;
+
+import static ru.practicum.ewmserver.error.constants.ErrorStrings.INVALID_IF_MATCH;
+
+/**
+ * Reads the entity version a client expects from an If-Match header. Both {@code "3"} and a bare {@code 3} are
+ * accepted; a missing header or {@code *} means any version.
+ */
+@UtilityClass
+public class IfMatch {
+    public static Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.strip().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.strip();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException(INVALID_IF_MATCH);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.ewmserver.httpcache;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.function.Supplier;
+
+public interface ResponseCache {
+    String CATEGORIES = "categories";
+    String COMPILATIONS = "compilations";
+    String EVENTS = "events";
+
+    /**
+     * Serves the cached JSON of the key, calling the loader only on a miss. The loader may return a DTO, ready JSON
+     * bytes or a CursorPage of either. The response carries a strong ETag of the body, so a matching If-None-Match
+     * is answered with 304.
+     */
+    ResponseEntity<byte[]> get(String namespace, String key, Supplier<?> loader);
+}
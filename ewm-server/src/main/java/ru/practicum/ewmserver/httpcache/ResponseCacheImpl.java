@@ -0,0 +1,165 @@
+package ru.practicum.ewmserver.httpcache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.ewmserver.category.model.CategoryChanged;
+import ru.practicum.ewmserver.compilation.model.CompilationChanged;
+import ru.practicum.ewmserver.event.model.EventChanged;
+import ru.practicum.ewmserver.pagination.CursorPage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Keeps serialized public responses keyed by namespace and request parameters. Admin writes drop the affected
+ * entries after commit, and a load that raced with such a drop is not kept.
+ */
+@Service
+public class ResponseCacheImpl implements ResponseCache {
+    private static final String CACHE_NAME = "responses";
+    private static final String KEY_SEPARATOR = ":";
+
+    private final Cache<String, CachedResponse> responses;
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper;
+
+    public ResponseCacheImpl(ObjectMapper objectMapper,
+                             @Value("${ewm.response-cache.maximum-size:10000}") long maximumSize,
+                             @Value("${ewm.response-cache.expire-after-write-ms:10000}") long expireAfterWriteMs,
+                             ObjectProvider<MeterRegistry> meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, responses, CACHE_NAME));
+    }
+
+    @Override
+    public ResponseEntity<byte[]> get(String namespace, String key, Supplier<?> loader) {
+        final String cacheKey = namespace + KEY_SEPARATOR + key;
+        CachedResponse response = responses.getIfPresent(cacheKey);
+        if (response == null) {
+            final long generation = generation(namespace).get();
+            response = load(loader.get());
+            responses.put(cacheKey, response);
+            if (generation(namespace).get() != generation) {
+                responses.invalidate(cacheKey);
+            }
+        }
+        final ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .eTag(response.getEtag());
+        if (response.getNextCursor() != null) {
+            builder.header(CursorPage.NEXT_CURSOR_HEADER, response.getNextCursor());
+        }
+        return builder.body(response.getBody());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChanged change) {
+        invalidate(CATEGORIES);
+        invalidate(COMPILATIONS);
+        invalidate(EVENTS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCompilationChanged(CompilationChanged change) {
+        invalidate(COMPILATIONS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChanged change) {
+        generation(EVENTS).incrementAndGet();
+        responses.invalidate(EVENTS + KEY_SEPARATOR + change.getEventId());
+        invalidate(COMPILATIONS);
+    }
+
+    private void invalidate(String namespace) {
+        generation(namespace).incrementAndGet();
+        final String prefix = namespace + KEY_SEPARATOR;
+        responses.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    private AtomicLong generation(String namespace) {
+        return generations.computeIfAbsent(namespace, name -> new AtomicLong());
+    }
+
+    private CachedResponse load(Object loaded) {
+        if (loaded instanceof CursorPage) {
+            final CursorPage<?> page = (CursorPage<?>) loaded;
+            final byte[] body = serialize(page.getContent());
+            return new CachedResponse(body, etag(body), page.getNextCursor());
+        }
+        final byte[] body = serialize(loaded);
+        return new CachedResponse(body, etag(body), null);
+    }
+
+    private byte[] serialize(Object body) {
+        if (body instanceof byte[]) {
+            return (byte[]) body;
+        }
+        if (body instanceof List && !((List<?>) body).isEmpty() && ((List<?>) body).get(0) instanceof byte[]) {
+            return joinJsonArray((List<?>) body);
+        }
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] joinJsonArray(List<?> elements) {
+        final ByteArrayOutputStream json = new ByteArrayOutputStream();
+        json.write('[');
+        for (int i = 0; i < elements.size(); i++) {
+            if (i > 0) {
+                json.write(',');
+            }
+            json.writeBytes((byte[]) elements.get(i));
+        }
+        json.write(']');
+        return json.toByteArray();
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class CachedResponse {
+        private final byte[] body;
+        private final String etag;
+        private final String nextCursor;
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.ewmserver.pagination;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.ewmserver.error.exception.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static ru.practicum.ewmserver.error.constants.ErrorStrings.INVALID_CURSOR;
+
+/**
+ * Opaque keyset position: the sort key values of the last row of a page, tagged with the ordering they belong to.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class Cursor {
+    private static final String SEPARATOR = "|";
+
+    private final String ordering;
+    private final List<String> values;
+
+    public static Cursor of(String ordering, Object... values) {
+        return new Cursor(ordering, Arrays.stream(values).map(String::valueOf).collect(Collectors.toList()));
+    }
+
+    public static Cursor decode(String token, String ordering, int size) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        final String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException(INVALID_CURSOR);
+        }
+        final List<String> parts = Arrays.asList(decoded.split("\\" + SEPARATOR, -1));
+        if (parts.size() != size + 1 || !parts.get(0).equals(ordering)) {
+            throw new InvalidRequestException(INVALID_CURSOR);
+        }
+        return new Cursor(ordering, parts.subList(1, parts.size()));
+    }
+
+    public String encode() {
+        final String joined = ordering + SEPARATOR + String.join(SEPARATOR, values);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(joined.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public int getInt(int index) {
+        try {
+            return Integer.parseInt(values.get(index));
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException(INVALID_CURSOR);
+        }
+    }
+
+    public long getLong(int index) {
+        try {
+            return Long.parseLong(values.get(index));
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException(INVALID_CURSOR);
+        }
+    }
+
+    public double getDouble(int index) {
+        try {
+            return Double.parseDouble(values.get(index));
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException(INVALID_CURSOR);
+        }
+    }
+
+    public LocalDateTime getDateTime(int index) {
+        try {
+            return LocalDateTime.parse(values.get(index));
+        } catch (DateTimeParseException e) {
+            throw new InvalidRequestException(INVALID_CURSOR);
+        }
+    }
+}
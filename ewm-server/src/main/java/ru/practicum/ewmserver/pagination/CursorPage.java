@@ -0,0 +1,43 @@
+package ru.practicum.ewmserver.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Slice;
+
+import javax.servlet.http.HttpServletResponse;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private final List<T> content;
+    private final String nextCursor;
+
+    public static <T, S extends T> CursorPage<T> of(Slice<S> slice, Function<S, Cursor> cursor) {
+        final List<S> content = slice.getContent();
+        final String nextCursor = slice.hasNext() && !content.isEmpty()
+                ? cursor.apply(content.get(content.size() - 1)).encode()
+                : null;
+        return new CursorPage<>(Collections.unmodifiableList(content), nextCursor);
+    }
+
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        return new CursorPage<>(content.stream().map(mapper).collect(Collectors.toList()), nextCursor);
+    }
+
+    public <R> CursorPage<R> mapContent(Function<List<T>, List<R>> mapper) {
+        return new CursorPage<>(mapper.apply(content), nextCursor);
+    }
+
+    public List<T> writeTo(HttpServletResponse response) {
+        if (nextCursor != null) {
+            response.setHeader(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return content;
+    }
+}
@@ -1,12 +1,15 @@
 package ru.practicum.ewmserver.request.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.ewmserver.error.exception.DataConflictException;
 import ru.practicum.ewmserver.error.exception.EntityNotFoundException;
 import ru.practicum.ewmserver.error.exception.ForbiddenOperationException;
 import ru.practicum.ewmserver.event.model.Event;
+import ru.practicum.ewmserver.event.model.EventChanged;
 import ru.practicum.ewmserver.event.model.EventState;
 import ru.practicum.ewmserver.event.storage.EventRepository;
 import ru.practicum.ewmserver.request.dto.ParticipationRequestDto;
@@ -28,6 +31,7 @@ public class PrivateRequestServiceImpl implements PrivateRequestService {
     private final RequestRepository requestRepository;
     private final UserRepository userRepository;
     private final EventRepository eventRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -45,16 +49,24 @@ public class PrivateRequestServiceImpl implements PrivateRequestService {
         if (!eventFromDb.getState().equals(EventState.PUBLISHED)) {
             throw new DataConflictException(String.format(REQUEST_FOR_NOT_PUBLISHED_EVENT, eventId));
         }
-        int countRequestByEventIdAndStatus = requestRepository.countRequestByEventIdAndStatus(
-                eventId,
-                RequestStatus.CONFIRMED
-        );
         if (eventFromDb.getParticipantLimit() > 0 &&
-                countRequestByEventIdAndStatus >= eventFromDb.getParticipantLimit()) {
+                eventFromDb.getConfirmedRequests() >= eventFromDb.getParticipantLimit()) {
             throw new DataConflictException(String.format(EVENT_IS_FULL, eventId));
         }
-        final Request request = RequestMapper.createRequest(userFromDb, eventFromDb);
-        return RequestMapper.createParticipationRequestDto(requestRepository.save(request));
+        final Request request;
+        try {
+            request = requestRepository.save(RequestMapper.createRequest(userFromDb, eventFromDb));
+        } catch (DataIntegrityViolationException e) {
+            throw new DataConflictException(String.format(REQUEST_ALREADY_EXISTS, userId, eventId));
+        }
+        // Reserving the seat locks the event row until commit, so it is done after the insert.
+        if (request.getStatus() == RequestStatus.CONFIRMED) {
+            if (eventRepository.reserveConfirmedRequest(eventId) == 0) {
+                throw new DataConflictException(String.format(EVENT_IS_FULL, eventId));
+            }
+            eventPublisher.publishEvent(new EventChanged(eventId));
+        }
+        return RequestMapper.createParticipationRequestDto(request);
     }
 
     @Override
@@ -81,6 +93,10 @@ public class PrivateRequestServiceImpl implements PrivateRequestService {
         if (request.getRequester().getId() != userId) {
             throw new ForbiddenOperationException(CANT_CANCEL_NOT_OWNER);
         }
+        if (request.getStatus() == RequestStatus.CONFIRMED) {
+            eventRepository.releaseConfirmedRequest(request.getEvent().getId());
+            eventPublisher.publishEvent(new EventChanged(request.getEvent().getId()));
+        }
         request.setStatus(RequestStatus.CANCELED);
         return RequestMapper.createParticipationRequestDto(requestRepository.save(request));
     }
@@ -1,19 +1,42 @@
 package ru.practicum.ewmserver.request.storage;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.ewmserver.request.model.Request;
 import ru.practicum.ewmserver.request.model.RequestStatus;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface RequestRepository extends JpaRepository<Request, Integer> {
+public interface RequestRepository extends JpaRepository<Request, Integer>, RequestRepositoryCustom {
     boolean existsByRequesterIdAndEventId(int eventId, int userId);
 
+    boolean existsByEventIdAndIdInAndStatus(int eventId, Collection<Integer> ids, RequestStatus status);
+
     int countRequestByEventIdAndStatus(int eventId, RequestStatus requestStatus);
 
     List<Request> getRequestsByRequesterId(int requesterId);
 
     List<Request> getRequestsByEventId(int eventId);
+
+    List<Request> getRequestsByEventIdAndIdIn(int eventId, Collection<Integer> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Request as r " +
+            "set r.status = ru.practicum.ewmserver.request.model.RequestStatus.REJECTED, r.version = r.version + 1 " +
+            "where r.event.id = :eventId " +
+            "and r.id in :ids " +
+            "and r.status = ru.practicum.ewmserver.request.model.RequestStatus.PENDING")
+    int rejectPending(@Param("eventId") int eventId, @Param("ids") Collection<Integer> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Request as r " +
+            "set r.status = ru.practicum.ewmserver.request.model.RequestStatus.REJECTED, r.version = r.version + 1 " +
+            "where r.event.id = :eventId " +
+            "and r.status = ru.practicum.ewmserver.request.model.RequestStatus.PENDING")
+    int rejectAllPending(@Param("eventId") int eventId);
 }
@@ -0,0 +1,7 @@
+package ru.practicum.ewmserver.request.storage;
+
+import java.util.Collection;
+
+public interface RequestRepositoryCustom {
+    int confirmPending(int eventId, Collection<Integer> requestIds, int capacity);
+}
@@ -0,0 +1,30 @@
+package ru.practicum.ewmserver.request.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.Collection;
+
+@RequiredArgsConstructor
+public class RequestRepositoryImpl implements RequestRepositoryCustom {
+    private static final String CONFIRM_PENDING = "update request set status = 'CONFIRMED', version = version + 1 " +
+            "where id in (" +
+            "select r.id from request as r " +
+            "where r.event_id = :eventId and r.id in (:requestIds) and r.status = 'PENDING' " +
+            "order by r.id " +
+            "limit :capacity)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public int confirmPending(int eventId, Collection<Integer> requestIds, int capacity) {
+        if (requestIds.isEmpty() || capacity <= 0) {
+            return 0;
+        }
+        return jdbcTemplate.update(CONFIRM_PENDING, new MapSqlParameterSource()
+                .addValue("eventId", eventId)
+                .addValue("requestIds", requestIds)
+                .addValue("capacity", capacity));
+    }
+}
@@ -16,6 +16,7 @@ import ru.practicum.ewmserver.user.dto.NewUserRequest;
 import ru.practicum.ewmserver.user.dto.UserDto;
 import ru.practicum.ewmserver.user.service.AdminUserService;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
@@ -43,7 +44,9 @@ public class AdminUserControllerImpl {
     @GetMapping
     public List<UserDto> getAllUsers(@RequestParam(defaultValue = "") List<Integer> ids,
                                      @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                     @RequestParam(defaultValue = "10") @Positive int size) {
-        return adminUserService.getAllUsers(ids, from, size);
+                                     @RequestParam(defaultValue = "10") @Positive int size,
+                                     @RequestParam(required = false) String cursor,
+                                     HttpServletResponse response) {
+        return adminUserService.getAllUsers(ids, from, size, cursor).writeTo(response);
     }
 }
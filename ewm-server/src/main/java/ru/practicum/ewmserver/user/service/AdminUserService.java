@@ -1,5 +1,6 @@
 package ru.practicum.ewmserver.user.service;
 
+import ru.practicum.ewmserver.pagination.CursorPage;
 import ru.practicum.ewmserver.user.dto.NewUserRequest;
 import ru.practicum.ewmserver.user.dto.UserDto;
 
@@ -10,5 +11,5 @@ public interface AdminUserService {
 
     void deleteUser(int userId);
 
-    List<UserDto> getAllUsers(List<Integer> ids, int from, int size);
+    CursorPage<UserDto> getAllUsers(List<Integer> ids, int from, int size, String cursor);
 }
@@ -1,11 +1,17 @@
 package ru.practicum.ewmserver.user.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.ewmserver.error.exception.DataConflictException;
 import ru.practicum.ewmserver.error.exception.EntityNotFoundException;
+import ru.practicum.ewmserver.event.model.EventChanged;
+import ru.practicum.ewmserver.event.storage.EventRepository;
+import ru.practicum.ewmserver.pagination.Cursor;
+import ru.practicum.ewmserver.pagination.CursorPage;
+import ru.practicum.ewmserver.pagination.OffsetPageRequest;
 import ru.practicum.ewmserver.user.dto.NewUserRequest;
 import ru.practicum.ewmserver.user.dto.UserDto;
 import ru.practicum.ewmserver.user.mapper.UserMapper;
@@ -21,7 +27,11 @@ import static ru.practicum.ewmserver.error.constants.ErrorStrings.USER_WITH_THIS
 @Service
 @RequiredArgsConstructor
 public class AdminUserServiceImpl implements AdminUserService {
+    private static final String USERS_ORDERING = "users";
+
     private final UserRepository userRepository;
+    private final EventRepository eventRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -39,21 +49,28 @@ public class AdminUserServiceImpl implements AdminUserService {
         if (!userRepository.existsById(userId)) {
             throw new EntityNotFoundException(String.format(USER_NOT_FOUND_BY_ID, userId));
         }
+        eventRepository.getIdsByInitiatorId(userId)
+                .forEach(eventId -> eventPublisher.publishEvent(new EventChanged(eventId)));
         userRepository.deleteById(userId);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<UserDto> getAllUsers(List<Integer> ids, int from, int size) {
+    public CursorPage<UserDto> getAllUsers(List<Integer> ids, int from, int size, String cursor) {
         if (ids.isEmpty()) {
-            final PageRequest pageRequest = PageRequest.of(from > 0 ? from / size : 0, size);
-            return userRepository.findAll(pageRequest)
-                    .map(UserMapper::createUserDto)
-                    .getContent();
+            final Cursor after = Cursor.decode(cursor, USERS_ORDERING, 1);
+            final Slice<User> users = after == null
+                    ? userRepository.getUsers(OffsetPageRequest.of(from, size))
+                    : userRepository.getUsersAfter(after.getInt(0), OffsetPageRequest.of(0, size));
+            return CursorPage.of(users, user -> Cursor.of(USERS_ORDERING, user.getId()))
+                    .map(UserMapper::createUserDto);
         }
-        return userRepository.getAllUsersById(ids)
-                .stream()
-                .map(UserMapper::createUserDto)
-                .collect(Collectors.toList());
+        return new CursorPage<>(
+                userRepository.getAllUsersById(ids)
+                        .stream()
+                        .map(UserMapper::createUserDto)
+                        .collect(Collectors.toList()),
+                null
+        );
     }
 }
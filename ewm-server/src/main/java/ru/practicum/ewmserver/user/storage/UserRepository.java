@@ -1,5 +1,7 @@
 package ru.practicum.ewmserver.user.storage;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -16,4 +18,15 @@ public interface UserRepository extends JpaRepository<User, Integer> {
             "from User as u " +
             "where (:ids is null or u.id in :ids) ")
     List<User> getAllUsersById(@Param("ids") List<Integer> ids);
+
+    @Query("select u " +
+            "from User as u " +
+            "order by u.id")
+    Slice<User> getUsers(Pageable page);
+
+    @Query("select u " +
+            "from User as u " +
+            "where u.id > :afterId " +
+            "order by u.id")
+    Slice<User> getUsersAfter(@Param("afterId") int afterId, Pageable page);
 }
@@ -0,0 +1,9 @@
+alter table event
+    add column if not exists geo_cell integer;
+
+update event
+set geo_cell = least(cast(floor((cast(lat as double precision) + 90) / 0.05) as integer), 3599) * 7200
+    + least(cast(floor((cast(lon as double precision) + 180) / 0.05) as integer), 7199);
+
+create index if not exists event_state_geo_cell_idx
+    on event (state, geo_cell);
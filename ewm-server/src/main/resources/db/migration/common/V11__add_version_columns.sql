@@ -0,0 +1,8 @@
+alter table event
+    add column if not exists version bigint default 0 not null;
+
+alter table request
+    add column if not exists version bigint default 0 not null;
+
+alter table compilation
+    add column if not exists version bigint default 0 not null;
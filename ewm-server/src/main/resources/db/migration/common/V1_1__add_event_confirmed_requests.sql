@@ -0,0 +1,2 @@
+alter table event
+    add column if not exists confirmed_requests integer default 0 not null;
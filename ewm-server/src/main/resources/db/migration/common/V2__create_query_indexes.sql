@@ -0,0 +1,8 @@
+create index if not exists event_state_event_date_idx
+    on event (state, event_date);
+
+create index if not exists request_event_id_status_idx
+    on request (event_id, status);
+
+create index if not exists request_requester_id_event_id_idx
+    on request (requester_id, event_id);
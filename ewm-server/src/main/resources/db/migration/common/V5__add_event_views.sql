@@ -0,0 +1,5 @@
+alter table event
+    add column if not exists views bigint default 0 not null;
+
+create index if not exists event_state_views_idx
+    on event (state, views, id);
@@ -0,0 +1,4 @@
+drop index if exists event_state_event_date_idx;
+
+create index if not exists event_state_event_date_idx
+    on event (state, event_date, id);
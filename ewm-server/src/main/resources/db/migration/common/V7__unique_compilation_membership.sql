@@ -0,0 +1,10 @@
+-- Duplicate rows of a (compilation_id, event_id) pair differ only by id, so keeping the oldest one loses nothing.
+delete from event_compilation_connection
+where id not in (
+    select min(id)
+    from event_compilation_connection
+    group by compilation_id, event_id
+);
+
+create unique index if not exists event_compilation_connection_compilation_id_event_id_uindex
+    on event_compilation_connection (compilation_id, event_id);
@@ -0,0 +1,33 @@
+-- Of duplicate requests by one requester for one event, keep the confirmed one if any, otherwise the latest.
+delete from request
+where id in (
+    select id
+    from (
+        select id,
+               row_number() over (
+                   partition by requester_id, event_id
+                   order by case when status = 'CONFIRMED' then 0 else 1 end, created desc, id desc
+               ) as duplicate_rank
+        from request
+    ) as ranked
+    where duplicate_rank > 1
+);
+
+update event
+set confirmed_requests = (
+    select count(*)
+    from request
+    where request.event_id = event.id
+      and request.status = 'CONFIRMED'
+)
+where confirmed_requests <> (
+    select count(*)
+    from request
+    where request.event_id = event.id
+      and request.status = 'CONFIRMED'
+);
+
+drop index if exists request_requester_id_event_id_idx;
+
+create unique index if not exists request_requester_id_event_id_uindex
+    on request (requester_id, event_id);
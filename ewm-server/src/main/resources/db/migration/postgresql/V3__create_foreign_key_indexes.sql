@@ -0,0 +1,11 @@
+create index if not exists event_initiator_id_idx
+    on event (initiator_id);
+
+create index if not exists event_category_id_idx
+    on event (category_id);
+
+create index if not exists event_compilation_connection_compilation_id_idx
+    on event_compilation_connection (compilation_id);
+
+create index if not exists event_compilation_connection_event_id_idx
+    on event_compilation_connection (event_id);
@@ -0,0 +1,10 @@
+create extension if not exists pg_trgm;
+
+create index if not exists event_title_trgm_idx
+    on event using gin (lower(title) gin_trgm_ops);
+
+create index if not exists event_annotation_trgm_idx
+    on event using gin (lower(annotation) gin_trgm_ops);
+
+create index if not exists event_description_trgm_idx
+    on event using gin (lower(description) gin_trgm_ops);
@@ -0,0 +1 @@
+drop index if exists event_compilation_connection_compilation_id_idx;
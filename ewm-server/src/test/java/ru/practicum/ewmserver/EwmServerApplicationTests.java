@@ -1,10 +1,8 @@
 package ru.practicum.ewmserver;
 
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
-class EwmServerApplicationTests {
+class EwmServerApplicationTests extends IntegrationTestBase {
 
 	@Test
 	void contextLoads() {
@@ -0,0 +1,170 @@
+package ru.practicum.ewmserver;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.practicum.ewmserver.compilation.dto.CompilationDto;
+import ru.practicum.ewmserver.compilation.dto.NewCompilationDto;
+import ru.practicum.ewmserver.compilation.service.AdminCompilationService;
+import ru.practicum.ewmserver.compilation.service.PublicCompilationService;
+import ru.practicum.ewmserver.compilation.storage.CompilationRepository;
+import ru.practicum.ewmserver.event.dto.EventFullDto;
+import ru.practicum.ewmserver.event.dto.EventShortDto;
+import ru.practicum.ewmserver.event.dto.PublicEventSearchRequest;
+import ru.practicum.ewmserver.event.model.Event;
+import ru.practicum.ewmserver.event.service.PrivateEventService;
+import ru.practicum.ewmserver.event.service.PublicEventService;
+import ru.practicum.ewmserver.user.model.User;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Every event gets its own category and initiator, so any per-row association load shows up as extra statements.
+ */
+class FetchPlanQueryCountTest extends IntegrationTestBase {
+    private static final int EVENTS_PER_COMPILATION = 5;
+    private static final int COMPILATIONS = 3;
+
+    @Autowired
+    private PublicEventService publicEventService;
+    @Autowired
+    private PrivateEventService privateEventService;
+    @Autowired
+    private PublicCompilationService publicCompilationService;
+    @Autowired
+    private AdminCompilationService adminCompilationService;
+    @Autowired
+    private CompilationRepository compilationRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<Event> events = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int c = 0; c < COMPILATIONS; c++) {
+            final List<Integer> eventIds = new ArrayList<>();
+            for (int i = 0; i < EVENTS_PER_COMPILATION; i++) {
+                final Event event = saveEvent(c * EVENTS_PER_COMPILATION + i);
+                events.add(event);
+                eventIds.add(event.getId());
+            }
+            adminCompilationService.postCompilation(
+                    NewCompilationDto.builder().events(eventIds).title("compilation " + c).build()
+            );
+        }
+    }
+
+    @Test
+    void publicEventDetailIsOneStatement() {
+        final Event event = events.get(0);
+        final EventFullDto dto = countStatements(1, () -> publicEventService.getEventById(event.getId()));
+        assertEquals(event.getCategory().getName(), dto.getCategory().getName());
+        assertEquals(event.getInitiator().getName(), dto.getInitiator().getName());
+    }
+
+    @Test
+    void initiatorEventDetailIsUserCheckPlusOneStatement() {
+        final Event event = events.get(0);
+        final EventFullDto dto = countStatements(2, () -> privateEventService.getEventById(
+                event.getInitiator().getId(), event.getId()
+        ));
+        assertEquals(event.getCategory().getName(), dto.getCategory().getName());
+    }
+
+    @Test
+    void compilationPageIsTwoStatementsThenOne() {
+        final List<CompilationDto> compilations = countStatements(2, () -> readPage(COMPILATIONS));
+        assertEquals(COMPILATIONS, compilations.size());
+        compilations.forEach(compilation -> assertEquals(EVENTS_PER_COMPILATION, compilation.getEvents().size()));
+        assertEquals(compilations, countStatements(1, () -> readPage(COMPILATIONS)));
+    }
+
+    @Test
+    void compilationDetailIsTwoStatementsThenNone() {
+        final int compilationId = compilationRepository.findAll().get(0).getId();
+        final CompilationDto compilation = countStatements(2, () -> read(
+                publicCompilationService.getCompilationById(compilationId),
+                CompilationDto.class
+        ));
+        assertEquals(EVENTS_PER_COMPILATION, compilation.getEvents().size());
+        assertEquals(compilation, countStatements(0, () -> read(
+                publicCompilationService.getCompilationById(compilationId),
+                CompilationDto.class
+        )));
+    }
+
+    @Test
+    void publicSearchHydratesNoEntities() {
+        final List<EventShortDto> page = countEntityLoads(0, () -> publicEventService.getEvents(
+                PublicEventSearchRequest.builder().size(events.size()).build()
+        ).getContent());
+        assertEquals(events.size(), page.size());
+        assertEquals(events.get(0).getCategory().getName(), page.get(0).getCategory().getName());
+        assertEquals(events.get(0).getInitiator().getName(), page.get(0).getInitiator().getName());
+    }
+
+    @Test
+    void compilationPageHydratesOnlyCompilations() {
+        final List<CompilationDto> compilations = countEntityLoads(COMPILATIONS, () -> readPage(COMPILATIONS));
+        assertEquals(
+                events.subList(0, EVENTS_PER_COMPILATION).stream().map(Event::getTitle).collect(Collectors.toList()),
+                compilations.get(0).getEvents().stream().map(EventShortDto::getTitle).collect(Collectors.toList())
+        );
+    }
+
+    private List<CompilationDto> readPage(int size) {
+        return publicCompilationService.getCompilation(false, 0, size, null).getContent().stream()
+                .map(json -> read(json, CompilationDto.class))
+                .collect(Collectors.toList());
+    }
+
+    private <T> T read(byte[] json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> T countStatements(long expected, Supplier<T> action) {
+        final Statistics statistics = statistics();
+        final T result = action.get();
+        assertEquals(expected, statistics.getPrepareStatementCount());
+        return result;
+    }
+
+    private <T> T countEntityLoads(long expected, Supplier<T> action) {
+        final Statistics statistics = statistics();
+        final T result = action.get();
+        assertEquals(expected, statistics.getEntityLoadCount());
+        return result;
+    }
+
+    private Statistics statistics() {
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private Event saveEvent(int i) {
+        final User initiator = fixtures.user("initiator " + i);
+        return fixtures.save(fixtures.publishedEvent(initiator, fixtures.category("category " + i))
+                .eventDate(LocalDateTime.now().plusDays(1 + i))
+                .title("title " + i));
+    }
+}
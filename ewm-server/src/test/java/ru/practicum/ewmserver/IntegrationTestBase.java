@@ -0,0 +1,34 @@
+package ru.practicum.ewmserver;
+
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import ru.practicum.ewmserver.event.service.EventViewService;
+import ru.practicum.statclient.HitSender;
+
+/**
+ * Common context for the integration tests. Subclasses that add no beans or properties of their own share one
+ * application context, so keep per-class {@code @MockBean}s and property overrides to the few tests that need them.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "ewm.confirmed-requests.reconcile-initial-delay-ms=3600000"
+})
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+public abstract class IntegrationTestBase {
+    @Autowired
+    protected TestFixtures fixtures;
+    @MockBean
+    protected EventViewService eventViewService;
+    @MockBean
+    protected HitSender hitSender;
+
+    @AfterEach
+    void deleteFixtures() {
+        fixtures.deleteAll();
+    }
+}
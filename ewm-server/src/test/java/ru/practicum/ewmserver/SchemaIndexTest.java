@@ -0,0 +1,78 @@
+package ru.practicum.ewmserver;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * H2 backs every foreign key with its own index, so single-column foreign key lookups are checked against
+ * those. PostgreSQL does not, and gets explicit indexes from the postgresql migrations instead.
+ */
+class SchemaIndexTest extends IntegrationTestBase {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void publicSearchUsesStateAndDateIndex() {
+        assertUsesIndex(
+                "select e.id from event as e " +
+                        "where e.state = 'PUBLISHED' " +
+                        "and e.event_date between timestamp '2030-01-01 00:00:00' and timestamp '2031-01-01 00:00:00'",
+                "event_state_event_date_idx"
+        );
+    }
+
+    @Test
+    void initiatorEventsUseInitiatorIndex() {
+        assertUsesIndex("select e.id from event as e where e.initiator_id = 1", "event_users_id_fk");
+    }
+
+    @Test
+    void categoryFilterUsesCategoryIndex() {
+        assertUsesIndex("select e.id from event as e where e.category_id = 1", "event_category_id_fk");
+    }
+
+    @Test
+    void confirmedCountUsesEventStatusIndex() {
+        assertUsesIndex(
+                "select count(r.id) from request as r where r.event_id = 1 and r.status = 'CONFIRMED'",
+                "request_event_id_status_idx"
+        );
+    }
+
+    @Test
+    void duplicateRequestCheckUsesRequesterEventIndex() {
+        assertUsesIndex(
+                "select r.id from request as r where r.requester_id = 1 and r.event_id = 1",
+                "request_requester_id_event_id_uindex"
+        );
+    }
+
+    @Test
+    void compilationEventsUseCompilationIndex() {
+        assertUsesIndex(
+                "select c.event_id from event_compilation_connection as c where c.compilation_id = 1",
+                "event_compilation_connection_compilation_id_event_id_uindex"
+        );
+    }
+
+    @Test
+    void radiusSearchUsesGeoCellIndex() {
+        assertUsesIndex(
+                "select e.id from event as e where e.state = 'PUBLISHED' and e.geo_cell in (16926752, 16926753)",
+                "event_state_geo_cell_idx"
+        );
+    }
+
+    private void assertUsesIndex(String sql, String index) {
+        final String plan = jdbcTemplate.queryForObject("explain " + sql, String.class);
+        assertTrue(
+                plan != null && plan.toLowerCase(Locale.ROOT).contains(index),
+                () -> "Expected " + index + " in plan:\n" + plan
+        );
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.ewmserver;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.test.context.TestComponent;
+import ru.practicum.ewmserver.category.model.Category;
+import ru.practicum.ewmserver.category.storage.CategoryRepository;
+import ru.practicum.ewmserver.compilation.storage.CompilationRepository;
+import ru.practicum.ewmserver.event.model.Event;
+import ru.practicum.ewmserver.event.model.EventState;
+import ru.practicum.ewmserver.event.model.Location;
+import ru.practicum.ewmserver.event.storage.EventRepository;
+import ru.practicum.ewmserver.request.model.Request;
+import ru.practicum.ewmserver.request.model.RequestStatus;
+import ru.practicum.ewmserver.request.storage.RequestRepository;
+import ru.practicum.ewmserver.user.model.User;
+import ru.practicum.ewmserver.user.storage.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Saves the users, categories, events and requests the integration tests build on and removes them afterwards.
+ */
+@TestComponent
+@RequiredArgsConstructor
+public class TestFixtures {
+    private final UserRepository userRepository;
+    private final CategoryRepository categoryRepository;
+    private final EventRepository eventRepository;
+    private final RequestRepository requestRepository;
+    private final CompilationRepository compilationRepository;
+
+    public User user(String name) {
+        return userRepository.save(User.builder().name(name).email(name.replace(" ", "") + "@test.ru").build());
+    }
+
+    public List<User> users(String name, int count) {
+        final List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            users.add(User.builder().name(name + " " + i).email(name + i + "@test.ru").build());
+        }
+        return userRepository.saveAll(users);
+    }
+
+    public Category category(String name) {
+        return categoryRepository.save(Category.builder().name(name).build());
+    }
+
+    /**
+     * A published, free, unlimited event in Moscow tomorrow; callers override what their test is about.
+     */
+    public Event.EventBuilder publishedEvent(User initiator, Category category) {
+        return Event.builder()
+                .annotation("annotation")
+                .description("description")
+                .category(category)
+                .createdOn(LocalDateTime.now())
+                .eventDate(LocalDateTime.now().plusDays(1))
+                .initiator(initiator)
+                .location(new Location(55.75f, 37.62f))
+                .paid(false)
+                .participantLimit(0)
+                .publishedOn(LocalDateTime.now())
+                .requestModeration(false)
+                .state(EventState.PUBLISHED)
+                .title("title");
+    }
+
+    public Event save(Event.EventBuilder event) {
+        return eventRepository.save(event.build());
+    }
+
+    public Request request(Event event, User requester, RequestStatus status) {
+        return requestRepository.save(Request.builder()
+                .event(event)
+                .requester(requester)
+                .created(LocalDateTime.now())
+                .status(status)
+                .build());
+    }
+
+    public void deleteAll() {
+        compilationRepository.deleteAllInBatch();
+        requestRepository.deleteAllInBatch();
+        eventRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+}
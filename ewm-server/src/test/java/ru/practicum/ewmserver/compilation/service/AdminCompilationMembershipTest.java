@@ -0,0 +1,116 @@
+package ru.practicum.ewmserver.compilation.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.practicum.ewmserver.IntegrationTestBase;
+import ru.practicum.ewmserver.category.model.Category;
+import ru.practicum.ewmserver.compilation.dto.CompilationDto;
+import ru.practicum.ewmserver.compilation.dto.NewCompilationDto;
+import ru.practicum.ewmserver.compilation.dto.UpdateCompilationEventsRequest;
+import ru.practicum.ewmserver.compilation.dto.UpdateCompilationRequest;
+import ru.practicum.ewmserver.compilation.model.EventCompilationConnection;
+import ru.practicum.ewmserver.compilation.storage.EventCompilationConnectionRepository;
+import ru.practicum.ewmserver.error.exception.EntityNotFoundException;
+import ru.practicum.ewmserver.error.exception.InvalidRequestException;
+import ru.practicum.ewmserver.event.dto.EventShortDto;
+import ru.practicum.ewmserver.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AdminCompilationMembershipTest extends IntegrationTestBase {
+    private static final int EVENTS = 6;
+
+    @Autowired
+    private AdminCompilationService adminCompilationService;
+    @Autowired
+    private EventCompilationConnectionRepository eventCompilationConnectionRepository;
+
+    private final List<Integer> eventIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        final User initiator = fixtures.user("initiator");
+        final Category category = fixtures.category("category");
+        for (int i = 0; i < EVENTS; i++) {
+            eventIds.add(fixtures.save(fixtures.publishedEvent(initiator, category)
+                    .eventDate(LocalDateTime.now().plusDays(1 + i))
+                    .title("title " + i)).getId());
+        }
+    }
+
+    @Test
+    void postIgnoresDuplicateEvents() {
+        final CompilationDto compilation = post(List.of(eventIds.get(0), eventIds.get(1), eventIds.get(0)));
+        assertEquals(Set.of(eventIds.get(0), eventIds.get(1)), eventIds(compilation));
+        assertEquals(2, memberships(compilation.getId()).size());
+    }
+
+    @Test
+    void patchKeepsUnchangedMemberships() {
+        final CompilationDto compilation = post(eventIds.subList(0, 3));
+        final Map<Integer, Integer> before = memberships(compilation.getId());
+        final CompilationDto patched = adminCompilationService.patchCompilation(
+                UpdateCompilationRequest.builder().events(eventIds.subList(1, 5)).build(),
+                compilation.getId()
+        );
+        assertEquals(Set.copyOf(eventIds.subList(1, 5)), eventIds(patched));
+        final Map<Integer, Integer> after = memberships(compilation.getId());
+        assertEquals(before.get(eventIds.get(1)), after.get(eventIds.get(1)));
+        assertEquals(before.get(eventIds.get(2)), after.get(eventIds.get(2)));
+    }
+
+    @Test
+    void eventsEndpointAddsAndRemoves() {
+        final CompilationDto compilation = post(eventIds.subList(0, 2));
+        final CompilationDto patched = adminCompilationService.patchCompilationEvents(
+                UpdateCompilationEventsRequest.builder()
+                        .add(List.of(eventIds.get(1), eventIds.get(2), eventIds.get(3)))
+                        .remove(List.of(eventIds.get(0)))
+                        .build(),
+                compilation.getId()
+        );
+        assertEquals(Set.of(eventIds.get(1), eventIds.get(2), eventIds.get(3)), eventIds(patched));
+    }
+
+    @Test
+    void unknownOrConflictingEventsAreRejected() {
+        final CompilationDto compilation = post(eventIds.subList(0, 1));
+        assertThrows(EntityNotFoundException.class, () -> adminCompilationService.patchCompilationEvents(
+                UpdateCompilationEventsRequest.builder().add(List.of(-1)).build(),
+                compilation.getId()
+        ));
+        assertThrows(InvalidRequestException.class, () -> adminCompilationService.patchCompilationEvents(
+                UpdateCompilationEventsRequest.builder()
+                        .add(List.of(eventIds.get(1)))
+                        .remove(List.of(eventIds.get(1)))
+                        .build(),
+                compilation.getId()
+        ));
+        assertEquals(Set.of(eventIds.get(0)), memberships(compilation.getId()).keySet());
+    }
+
+    private CompilationDto post(List<Integer> events) {
+        return adminCompilationService.postCompilation(
+                NewCompilationDto.builder().events(events).title("compilation").build()
+        );
+    }
+
+    private Map<Integer, Integer> memberships(int compilationId) {
+        return eventCompilationConnectionRepository.findAll().stream()
+                .filter(connection -> connection.getCompilationId() == compilationId)
+                .collect(Collectors.toMap(EventCompilationConnection::getEventId, EventCompilationConnection::getId));
+    }
+
+    private static Set<Integer> eventIds(CompilationDto compilation) {
+        return compilation.getEvents().stream().map(EventShortDto::getId).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.ewmserver.compilation.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.practicum.ewmserver.IntegrationTestBase;
+import ru.practicum.ewmserver.compilation.dto.CompilationDto;
+import ru.practicum.ewmserver.compilation.dto.NewCompilationDto;
+import ru.practicum.ewmserver.compilation.dto.UpdateCompilationRequest;
+import ru.practicum.ewmserver.event.dto.UpdateEventAdminRequest;
+import ru.practicum.ewmserver.event.model.Event;
+import ru.practicum.ewmserver.event.service.AdminEventService;
+import ru.practicum.ewmserver.request.service.PrivateRequestService;
+import ru.practicum.ewmserver.user.model.User;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CompilationReadModelTest extends IntegrationTestBase {
+    @Autowired
+    private PublicCompilationService publicCompilationService;
+    @Autowired
+    private AdminCompilationService adminCompilationService;
+    @Autowired
+    private AdminEventService adminEventService;
+    @Autowired
+    private PrivateRequestService privateRequestService;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User requester;
+    private Event event;
+    private int compilationId;
+
+    @BeforeEach
+    void setUp() {
+        final User initiator = fixtures.user("initiator");
+        requester = fixtures.user("requester");
+        event = fixtures.save(fixtures.publishedEvent(initiator, fixtures.category("category")));
+        compilationId = adminCompilationService.postCompilation(
+                NewCompilationDto.builder().events(List.of(event.getId())).title("compilation").build()
+        ).getId();
+    }
+
+    @Test
+    void compilationChangeInvalidatesEntry() throws IOException {
+        assertEquals("compilation", read().getTitle());
+        adminCompilationService.patchCompilation(
+                UpdateCompilationRequest.builder().title("renamed").build(),
+                compilationId
+        );
+        assertEquals("renamed", read().getTitle());
+    }
+
+    @Test
+    void memberEventChangeInvalidatesEntry() throws IOException {
+        assertEquals("title", read().getEvents().get(0).getTitle());
+        adminEventService.patchEvent(UpdateEventAdminRequest.builder().title("new title").build(), event.getId(), null);
+        assertEquals("new title", read().getEvents().get(0).getTitle());
+    }
+
+    @Test
+    void confirmedRequestsChangeInvalidatesEntry() throws IOException {
+        assertEquals(0, read().getEvents().get(0).getConfirmedRequests());
+        final int requestId = privateRequestService.postRequest(requester.getId(), event.getId()).getId();
+        assertEquals(1, read().getEvents().get(0).getConfirmedRequests());
+        privateRequestService.cancelRequest(requester.getId(), requestId);
+        assertEquals(0, read().getEvents().get(0).getConfirmedRequests());
+    }
+
+    private CompilationDto read() throws IOException {
+        return objectMapper.readValue(publicCompilationService.getCompilationById(compilationId), CompilationDto.class);
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.ewmserver.event.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.ewmserver.IntegrationTestBase;
+import ru.practicum.ewmserver.category.model.Category;
+import ru.practicum.ewmserver.event.model.Event;
+import ru.practicum.ewmserver.event.storage.EventRepository;
+import ru.practicum.ewmserver.request.model.RequestStatus;
+import ru.practicum.ewmserver.user.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ConfirmedRequestsReconciliationJobTest extends IntegrationTestBase {
+    @Autowired
+    private ConfirmedRequestsReconciliationJob reconciliationJob;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Event> events = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        final User initiator = fixtures.user("initiator");
+        final List<User> requesters = fixtures.users("requester", 2);
+        final Category category = fixtures.category("category");
+        for (int i = 0; i < 3; i++) {
+            final Event event = fixtures.save(fixtures.publishedEvent(initiator, category).title("title " + i));
+            for (int j = 0; j < i; j++) {
+                fixtures.request(event, requesters.get(j), RequestStatus.CONFIRMED);
+            }
+            events.add(event);
+        }
+        reconciliationJob.reconcile();
+    }
+
+    @Test
+    void reconcileRestoresCorruptedCounters() {
+        jdbcTemplate.update("update event set confirmed_requests = 7 where id = ?", events.get(0).getId());
+        jdbcTemplate.update("update event set confirmed_requests = 0 where id = ?", events.get(2).getId());
+
+        reconciliationJob.reconcile();
+
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals(i, eventRepository.findById(events.get(i).getId()).orElseThrow().getConfirmedRequests());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package ru.practicum.ewmserver.event.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.practicum.ewmserver.IntegrationTestBase;
+import ru.practicum.ewmserver.event.dto.EventFullDto;
+import ru.practicum.ewmserver.event.dto.EventShortDto;
+import ru.practicum.ewmserver.event.dto.PublicEventSearchRequest;
+import ru.practicum.ewmserver.event.model.Event;
+import ru.practicum.ewmserver.request.model.RequestStatus;
+import ru.practicum.ewmserver.user.model.User;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventListQueryCountTest extends IntegrationTestBase {
+    private static final int EVENTS = 20;
+    private static final int CONFIRMED_PER_EVENT = 2;
+    private static final int SMALL_PAGE = 5;
+
+    @Autowired
+    private AdminEventService adminEventService;
+    @Autowired
+    private PrivateEventService privateEventService;
+    @Autowired
+    private PublicEventService publicEventService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ConfirmedRequestsReconciliationJob reconciliationJob;
+
+    private User initiator;
+
+    @BeforeEach
+    void setUp() {
+        initiator = fixtures.user("initiator");
+        final List<User> requesters = fixtures.users("requester", CONFIRMED_PER_EVENT);
+        for (int i = 0; i < EVENTS; i++) {
+            final Event event = fixtures.save(fixtures.publishedEvent(initiator, fixtures.category("category " + i))
+                    .eventDate(LocalDateTime.now().plusDays(1 + i))
+                    .title("title " + i));
+            for (User requester : requesters) {
+                fixtures.request(event, requester, RequestStatus.CONFIRMED);
+            }
+        }
+        reconciliationJob.reconcile();
+    }
+
+    @Test
+    void adminEventsUseConstantQueryCountPerPage() {
+        assertConstantQueryCount(size -> adminEventService.getEvents(
+                null, null, null, null, null, 0, size, null
+        ).getContent().stream().map(EventFullDto::getConfirmedRequests).collect(Collectors.toList()));
+    }
+
+    @Test
+    void userEventsUseConstantQueryCountPerPage() {
+        assertConstantQueryCount(size -> privateEventService.getUserEvents(
+                initiator.getId(), 0, size, null
+        ).getContent().stream().map(EventShortDto::getConfirmedRequests).collect(Collectors.toList()));
+    }
+
+    @Test
+    void publicEventsUseConstantQueryCountPerPage() {
+        assertConstantQueryCount(size -> publicEventService.getEvents(
+                PublicEventSearchRequest.builder().size(size).build()
+        ).getContent().stream().map(EventShortDto::getConfirmedRequests).collect(Collectors.toList()));
+    }
+
+    private void assertConstantQueryCount(IntFunction<List<Integer>> page) {
+        final long smallPage = countQueries(() -> assertConfirmed(page.apply(SMALL_PAGE), SMALL_PAGE));
+        final long fullPage = countQueries(() -> assertConfirmed(page.apply(EVENTS), EVENTS));
+        assertEquals(smallPage, fullPage);
+    }
+
+    private long countQueries(Runnable action) {
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private static void assertConfirmed(List<Integer> confirmedRequests, int size) {
+        assertEquals(size, confirmedRequests.size());
+        assertTrue(confirmedRequests.stream().allMatch(count -> count == CONFIRMED_PER_EVENT));
+    }
+}
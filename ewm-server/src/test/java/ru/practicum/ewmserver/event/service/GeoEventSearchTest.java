@@ -0,0 +1,153 @@
+package ru.practicum.ewmserver.event.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.practicum.ewmserver.IntegrationTestBase;
+import ru.practicum.ewmserver.category.model.Category;
+import ru.practicum.ewmserver.error.exception.InvalidRequestException;
+import ru.practicum.ewmserver.event.dto.EventShortDto;
+import ru.practicum.ewmserver.event.dto.PublicEventSearchRequest;
+import ru.practicum.ewmserver.event.model.GeoGrid;
+import ru.practicum.ewmserver.event.model.Location;
+import ru.practicum.ewmserver.event.storage.EventRepository;
+import ru.practicum.ewmserver.pagination.CursorPage;
+import ru.practicum.ewmserver.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GeoEventSearchTest extends IntegrationTestBase {
+    private static final float LAT = 55.75f;
+    private static final float LON = 37.62f;
+    private static final float FIJI_LAT = -17.0f;
+
+    @Autowired
+    private PublicEventService publicEventService;
+    @Autowired
+    private EventRepository eventRepository;
+
+    private User initiator;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        initiator = fixtures.user("initiator");
+        category = fixtures.category("category");
+        save("3 km east", 0, 3, 1);
+        save("1 km north", 1, 0, 2);
+        save("4.5 km south-west", -3.2, -3.2, 3);
+        save("6 km north", 6, 0, 4);
+        save("20 km west", 0, -20, 5);
+        save("300 km south", -300, 0, 6);
+    }
+
+    @Test
+    void geoCellIsStoredOnSave() {
+        eventRepository.findAll().forEach(event -> assertEquals(
+                GeoGrid.cellOf(event.getLocation().getLat(), event.getLocation().getLon()),
+                event.getGeoCell()
+        ));
+    }
+
+    @Test
+    void radiusFiltersAndDistanceSorts() {
+        assertEquals(List.of("3 km east", "1 km north", "4.5 km south-west"), search(5.0, "EVENT_DATE"));
+        assertEquals(List.of("1 km north", "3 km east", "4.5 km south-west"), search(5.0, "DISTANCE"));
+        assertEquals(
+                List.of("1 km north", "3 km east", "4.5 km south-west", "6 km north", "20 km west"),
+                search(25.0, "DISTANCE")
+        );
+    }
+
+    @Test
+    void largeRadiusFallsBackToBoundingBox() {
+        assertEquals(
+                List.of("1 km north", "3 km east", "4.5 km south-west", "6 km north", "20 km west", "300 km south"),
+                search(1000.0, "DISTANCE")
+        );
+    }
+
+    @Test
+    void searchNearAntimeridianFindsEventsOnBothSides() {
+        saveAt("Fiji 3 km west", FIJI_LAT, 179.96f, 7);
+        saveAt("Fiji 6 km east", FIJI_LAT, -179.95f, 8);
+        saveAt("Fiji 100 km east", FIJI_LAT, -179.05f, 9);
+        assertEquals(
+                List.of("Fiji 3 km west", "Fiji 6 km east"),
+                search(FIJI_LAT, 179.99f, 10.0, "DISTANCE")
+        );
+        assertEquals(
+                List.of("Fiji 3 km west", "Fiji 6 km east", "Fiji 100 km east"),
+                search(FIJI_LAT, 179.99f, 1000.0, "DISTANCE")
+        );
+        assertEquals(
+                List.of("Fiji 6 km east", "Fiji 3 km west"),
+                search(FIJI_LAT, -179.99f, 10.0, "DISTANCE")
+        );
+    }
+
+    @Test
+    void distanceCursorWalksAllPages() {
+        final List<String> titles = new ArrayList<>();
+        String cursor = null;
+        do {
+            final CursorPage<EventShortDto> page = publicEventService.getEvents(PublicEventSearchRequest.builder()
+                    .lat(LAT)
+                    .lon(LON)
+                    .radius(25.0)
+                    .sort("DISTANCE")
+                    .size(2)
+                    .cursor(cursor)
+                    .build());
+            page.getContent().forEach(event -> titles.add(event.getTitle()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertEquals(search(25.0, "DISTANCE"), titles);
+    }
+
+    @Test
+    void incompleteOrInvalidLocationIsRejected() {
+        assertThrows(InvalidRequestException.class, () -> publicEventService.getEvents(
+                PublicEventSearchRequest.builder().lat(LAT).radius(5.0).build()
+        ));
+        assertThrows(InvalidRequestException.class, () -> publicEventService.getEvents(
+                PublicEventSearchRequest.builder().lat(LAT).lon(LON).radius(-1.0).build()
+        ));
+        assertThrows(InvalidRequestException.class, () -> publicEventService.getEvents(
+                PublicEventSearchRequest.builder().sort("DISTANCE").build()
+        ));
+    }
+
+    private List<String> search(Double radius, String sort) {
+        return search(LAT, LON, radius, sort);
+    }
+
+    private List<String> search(float lat, float lon, Double radius, String sort) {
+        return publicEventService.getEvents(
+                        PublicEventSearchRequest.builder().lat(lat).lon(lon).radius(radius).sort(sort).build()
+                )
+                .getContent()
+                .stream()
+                .map(EventShortDto::getTitle)
+                .collect(Collectors.toList());
+    }
+
+    private void save(String title, double northKm, double eastKm, int daysAhead) {
+        final float lat = (float) (LAT + northKm / GeoGrid.KM_PER_DEGREE);
+        final float lon = (float) (LON + eastKm / GeoGrid.lonKmPerDegree(LAT));
+        saveAt(title, lat, lon, daysAhead);
+    }
+
+    private void saveAt(String title, float lat, float lon, int daysAhead) {
+        fixtures.save(fixtures.publishedEvent(initiator, category)
+                .title(title)
+                .eventDate(LocalDateTime.now().plusDays(daysAhead))
+                .location(new Location(lat, lon)));
+    }
+}
@@ -0,0 +1,130 @@
+package ru.practicum.ewmserver.event.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.ewmserver.IntegrationTestBase;
+import ru.practicum.ewmserver.event.dto.EventRequestStatusUpdateRequest;
+import ru.practicum.ewmserver.event.dto.UpdateEventAdminRequest;
+import ru.practicum.ewmserver.event.model.Event;
+import ru.practicum.ewmserver.event.storage.EventRepository;
+import ru.practicum.ewmserver.request.model.Request;
+import ru.practicum.ewmserver.request.model.RequestStatus;
+import ru.practicum.ewmserver.request.service.PrivateRequestService;
+import ru.practicum.ewmserver.request.storage.RequestRepository;
+import ru.practicum.ewmserver.user.model.User;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class OptimisticLockingTest extends IntegrationTestBase {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private AdminEventService adminEventService;
+    @Autowired
+    private PrivateEventService privateEventService;
+    @Autowired
+    private PrivateRequestService privateRequestService;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private RequestRepository requestRepository;
+
+    private User initiator;
+    private User requester;
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        initiator = fixtures.user("initiator");
+        requester = fixtures.user("requester");
+        event = fixtures.save(fixtures.publishedEvent(initiator, fixtures.category("category"))
+                .participantLimit(10)
+                .requestModeration(true));
+    }
+
+    @Test
+    void staleEventEditDoesNotOverwriteConcurrentPatch() {
+        final Event stale = eventRepository.findById(event.getId()).orElseThrow();
+        adminEventService.patchEvent(
+                UpdateEventAdminRequest.builder().title("moderated title").build(), event.getId(), null
+        );
+
+        stale.setPaid(true);
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> eventRepository.save(stale));
+
+        final Event current = eventRepository.findById(event.getId()).orElseThrow();
+        assertEquals("moderated title", current.getTitle());
+        assertEquals(false, current.getPaid());
+        assertEquals(stale.getVersion() + 1, current.getVersion());
+    }
+
+    @Test
+    void patchWithStaleIfMatchIsRejected() throws Exception {
+        final String uri = "/admin/events/" + event.getId();
+        final long version = eventRepository.findById(event.getId()).orElseThrow().getVersion();
+        mockMvc.perform(patch(uri)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, "\"" + version + "\"")
+                        .content("{\"title\": \"first title\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(version + 1));
+
+        mockMvc.perform(patch(uri)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, "\"" + version + "\"")
+                        .content("{\"title\": \"second title\"}"))
+                .andExpect(status().isConflict());
+        assertEquals("first title", eventRepository.findById(event.getId()).orElseThrow().getTitle());
+
+        mockMvc.perform(patch(uri)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, "\"" + (version + 1) + "\"")
+                        .content("{\"title\": \"second title\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("second title"));
+    }
+
+    @Test
+    void confirmedRequestCounterDoesNotConflictWithEventEdits() {
+        final long version = eventRepository.findById(event.getId()).orElseThrow().getVersion();
+        final int requestId = privateRequestService.postRequest(requester.getId(), event.getId()).getId();
+        confirm(requestId);
+
+        final Event current = eventRepository.findById(event.getId()).orElseThrow();
+        assertEquals(1, current.getConfirmedRequests());
+        assertEquals(version, current.getVersion());
+    }
+
+    @Test
+    void bulkStatusChangeInvalidatesStaleRequest() {
+        final int requestId = privateRequestService.postRequest(requester.getId(), event.getId()).getId();
+        final Request stale = requestRepository.findById(requestId).orElseThrow();
+        confirm(requestId);
+
+        stale.setStatus(RequestStatus.CANCELED);
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> requestRepository.save(stale));
+        assertEquals(RequestStatus.CONFIRMED, requestRepository.findById(requestId).orElseThrow().getStatus());
+    }
+
+    private void confirm(int requestId) {
+        privateEventService.patchRequests(
+                EventRequestStatusUpdateRequest.builder()
+                        .requestIds(List.of(requestId))
+                        .status(RequestStatus.CONFIRMED)
+                        .build(),
+                initiator.getId(),
+                event.getId()
+        );
+    }
+}
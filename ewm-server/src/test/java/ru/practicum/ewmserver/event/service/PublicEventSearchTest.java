@@ -0,0 +1,157 @@
+package ru.practicum.ewmserver.event.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.practicum.ewmserver.IntegrationTestBase;
+import ru.practicum.ewmserver.category.model.Category;
+import ru.practicum.ewmserver.error.exception.InvalidRequestException;
+import ru.practicum.ewmserver.event.dto.EventShortDto;
+import ru.practicum.ewmserver.event.dto.PublicEventSearchRequest;
+import ru.practicum.ewmserver.event.model.Event;
+import ru.practicum.ewmserver.event.model.EventState;
+import ru.practicum.ewmserver.event.storage.EventRepository;
+import ru.practicum.ewmserver.pagination.CursorPage;
+import ru.practicum.ewmserver.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class PublicEventSearchTest extends IntegrationTestBase {
+    @Autowired
+    private PublicEventService publicEventService;
+    @Autowired
+    private EventRepository eventRepository;
+
+    private User initiator;
+    private Category concerts;
+    private Category lectures;
+
+    @BeforeEach
+    void setUp() {
+        initiator = fixtures.user("initiator");
+        concerts = fixtures.category("concerts");
+        lectures = fixtures.category("lectures");
+        save("Jazz night", "Live music", "An evening of jazz standards", concerts, EventState.PUBLISHED, 3);
+        save("Rock festival", "Jazz-free zone", "Guitars only", concerts, EventState.PUBLISHED, 2);
+        save("History of music", "Lecture", "Covers JAZZ and blues", lectures, EventState.PUBLISHED, 1);
+        save("Jazz rehearsal", "Closed", "Not published yet", concerts, EventState.PENDING, 4);
+        save("Discount 100% off", "Sale", "Everything must go", lectures, EventState.PUBLISHED, 5);
+    }
+
+    @Test
+    void searchIsCaseInsensitiveAndRankedByField() {
+        assertEquals(
+                List.of("Jazz night", "Rock festival", "History of music"),
+                search("jAzZ", null)
+        );
+    }
+
+    @Test
+    void searchIsCombinedWithOtherFilters() {
+        assertEquals(List.of("History of music"), search("jazz", List.of(lectures.getId())));
+        assertEquals(List.of("Jazz night", "Rock festival"), search("jazz", List.of(concerts.getId())));
+    }
+
+    @Test
+    void searchTreatsWildcardsLiterally() {
+        assertEquals(List.of("Discount 100% off"), search("0% o", null));
+        assertEquals(List.of(), search("_", null));
+    }
+
+    @Test
+    void viewsSortUsesStoredCounters() {
+        final Map<String, Integer> ids = eventRepository.findAll().stream()
+                .collect(Collectors.toMap(Event::getTitle, Event::getId));
+        eventRepository.updateViews(Map.of(
+                ids.get("History of music"), 30L,
+                ids.get("Jazz night"), 20L,
+                ids.get("Rock festival"), 10L
+        ));
+        assertEquals(
+                List.of("History of music", "Jazz night", "Rock festival", "Discount 100% off"),
+                search("", null, "VIEWS")
+        );
+        assertEquals(
+                List.of(30L, 20L, 10L, 0L),
+                publicEventService.getEvents(PublicEventSearchRequest.builder().sort("VIEWS").build())
+                        .getContent()
+                        .stream()
+                        .map(EventShortDto::getViews)
+                        .collect(Collectors.toList())
+        );
+        verify(eventViewService, never()).fillViews(any());
+    }
+
+    @Test
+    void cursorPagesFollowEachOrdering() {
+        final Map<String, Integer> ids = eventRepository.findAll().stream()
+                .collect(Collectors.toMap(Event::getTitle, Event::getId));
+        eventRepository.updateViews(Map.of(ids.get("Jazz night"), 20L, ids.get("Rock festival"), 20L));
+        assertEquals(search("", null), searchByCursor("", "EVENT_DATE"));
+        assertEquals(search("jazz", null), searchByCursor("jazz", "EVENT_DATE"));
+        assertEquals(search("", null, "VIEWS"), searchByCursor("", "VIEWS"));
+    }
+
+    @Test
+    void cursorFromAnotherOrderingIsRejected() {
+        final String cursor = publicEventService.getEvents(PublicEventSearchRequest.builder().sort("VIEWS").size(1).build())
+                .getNextCursor();
+        assertThrows(InvalidRequestException.class, () -> publicEventService.getEvents(
+                PublicEventSearchRequest.builder().size(1).cursor(cursor).build()
+        ));
+        assertThrows(InvalidRequestException.class, () -> publicEventService.getEvents(
+                PublicEventSearchRequest.builder().size(1).cursor("not a cursor").build()
+        ));
+    }
+
+    private List<String> searchByCursor(String text, String sort) {
+        final List<String> titles = new ArrayList<>();
+        String cursor = null;
+        do {
+            final CursorPage<EventShortDto> page = publicEventService.getEvents(
+                    PublicEventSearchRequest.builder().text(text).sort(sort).size(1).cursor(cursor).build()
+            );
+            page.getContent().forEach(event -> titles.add(event.getTitle()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return titles;
+    }
+
+    private List<String> search(String text, List<Integer> categories) {
+        return search(text, categories, "EVENT_DATE");
+    }
+
+    private List<String> search(String text, List<Integer> categories, String sort) {
+        return publicEventService.getEvents(
+                        PublicEventSearchRequest.builder().text(text).categories(categories).sort(sort).build()
+                )
+                .getContent()
+                .stream()
+                .map(EventShortDto::getTitle)
+                .collect(Collectors.toList());
+    }
+
+    private void save(String title,
+                      String annotation,
+                      String description,
+                      Category category,
+                      EventState state,
+                      int daysAhead) {
+        fixtures.save(fixtures.publishedEvent(initiator, category)
+                .title(title)
+                .annotation(annotation)
+                .description(description)
+                .eventDate(LocalDateTime.now().plusDays(daysAhead))
+                .state(state));
+    }
+}
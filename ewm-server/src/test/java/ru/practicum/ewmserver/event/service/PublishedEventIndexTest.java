@@ -0,0 +1,223 @@
+package ru.practicum.ewmserver.event.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.ewmserver.IntegrationTestBase;
+import ru.practicum.ewmserver.category.dto.CategoryDto;
+import ru.practicum.ewmserver.category.model.Category;
+import ru.practicum.ewmserver.category.service.AdminCategoryService;
+import ru.practicum.ewmserver.event.dto.EventShortDto;
+import ru.practicum.ewmserver.event.dto.PublicEventSearchRequest;
+import ru.practicum.ewmserver.event.dto.UpdateEventAdminRequest;
+import ru.practicum.ewmserver.event.model.Event;
+import ru.practicum.ewmserver.event.model.EventShortView;
+import ru.practicum.ewmserver.event.model.EventState;
+import ru.practicum.ewmserver.event.storage.EventFilter;
+import ru.practicum.ewmserver.event.storage.EventRepository;
+import ru.practicum.ewmserver.pagination.OffsetPageRequest;
+import ru.practicum.ewmserver.user.model.User;
+import ru.practicum.ewmserver.user.service.AdminUserService;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestPropertySource(properties = "ewm.hot-index.enabled=true")
+class PublishedEventIndexTest extends IntegrationTestBase {
+    private static final int EVENTS = 40;
+    private static final int PAGE = 3;
+    private static final long UPDATE_TIMEOUT_MS = 5000;
+
+    @Autowired
+    private PublishedEventIndexImpl publishedEventIndex;
+    @Autowired
+    private PublicEventService publicEventService;
+    @Autowired
+    private AdminEventService adminEventService;
+    @Autowired
+    private AdminCategoryService adminCategoryService;
+    @Autowired
+    private AdminUserService adminUserService;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Category> categories = new ArrayList<>();
+    private User initiator;
+    private Event pending;
+
+    @BeforeEach
+    void setUp() {
+        initiator = fixtures.user("initiator");
+        for (int i = 0; i < 3; i++) {
+            categories.add(fixtures.category("category " + i));
+        }
+        final LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < EVENTS; i++) {
+            final EventState state = i % 7 == 0 ? EventState.PENDING : EventState.PUBLISHED;
+            final LocalDateTime eventDate = i % 11 == 0 ? now.minusDays(1) : now.plusHours(2 + i % 13);
+            save(i, state, eventDate);
+        }
+        pending = save(EVENTS, EventState.PENDING, now.plusDays(3));
+        publishedEventIndex.load();
+    }
+
+    @Test
+    void indexMatchesDatabaseSearch() {
+        final List<EventFilter> filters = List.of(
+                filter().build(),
+                filter().categoryIds(List.of(categories.get(0).getId(), categories.get(2).getId())).build(),
+                filter().paid(true).build(),
+                filter().paid(false).categoryIds(List.of(categories.get(1).getId())).build(),
+                filter().onlyAvailable(true).build(),
+                filter().rangeEnd(LocalDateTime.now().plusHours(8)).build()
+        );
+        for (EventFilter filter : filters) {
+            assertEquals(walkDatabase(filter), walkIndex(filter), filter::toString);
+            assertEquals(
+                    ids(eventRepository.searchOrderByEventDate(filter, null, null, OffsetPageRequest.of(4, PAGE))),
+                    ids(publishedEventIndex.searchOrderByEventDate(filter, null, null, OffsetPageRequest.of(4, PAGE))
+                            .orElseThrow()),
+                    filter::toString
+            );
+        }
+    }
+
+    @Test
+    void coveredSearchesSkipTheDatabase() {
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        publicEventService.getEvents(PublicEventSearchRequest.builder().build());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        publicEventService.getEvents(PublicEventSearchRequest.builder().text("text").build());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertTrue(publishedEventIndex.searchOrderByEventDate(
+                filter().rangeStart(LocalDateTime.now().minusDays(2)).build(), null, null, OffsetPageRequest.of(0, 1)
+        ).isEmpty());
+    }
+
+    @Test
+    void publishedEventsAreIndexedAfterCommit() throws InterruptedException {
+        assertFalse(titles().contains(pending.getTitle()));
+        adminEventService.patchEvent(
+                UpdateEventAdminRequest.builder().stateAction("PUBLISH_EVENT").build(), pending.getId(), null
+        );
+        awaitIndex(() -> titles().contains(pending.getTitle()));
+        assertEquals(walkDatabase(filter().build()), walkIndex(filter().build()));
+    }
+
+    @Test
+    void renamedCategoryIsReindexed() throws InterruptedException {
+        final Category category = categories.get(0);
+        adminCategoryService.patchCategoryAdmin(new CategoryDto(category.getId(), "renamed"), category.getId());
+        awaitIndex(() -> categoryNames(category.getId()).equals(Set.of("renamed")));
+        assertEquals(walkDatabase(filter().build()), walkIndex(filter().build()));
+    }
+
+    @Test
+    void eventsOfDeletedUserLeaveTheIndex() throws InterruptedException {
+        final User other = fixtures.user("other");
+        final Event event = fixtures.save(fixtures.publishedEvent(other, categories.get(0))
+                .title("other event")
+                .eventDate(LocalDateTime.now().plusHours(5)));
+        publishedEventIndex.load();
+        assertTrue(titles().contains(event.getTitle()));
+
+        adminUserService.deleteUser(other.getId());
+        awaitIndex(() -> !titles().contains(event.getTitle()));
+        assertEquals(walkDatabase(filter().build()), walkIndex(filter().build()));
+    }
+
+    private void awaitIndex(BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + UPDATE_TIMEOUT_MS;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    private Set<String> categoryNames(int categoryId) {
+        return indexedEvents().stream()
+                .map(EventShortDto::getCategory)
+                .filter(category -> category.getId() == categoryId)
+                .map(CategoryDto::getName)
+                .collect(Collectors.toSet());
+    }
+
+    private List<String> titles() {
+        return indexedEvents().stream()
+                .map(EventShortDto::getTitle)
+                .collect(Collectors.toList());
+    }
+
+    private List<EventShortDto> indexedEvents() {
+        return publicEventService.getEvents(PublicEventSearchRequest.builder().size(100).build()).getContent();
+    }
+
+    private List<Integer> walkIndex(EventFilter filter) {
+        return walk(filter, (after, page) -> publishedEventIndex.searchOrderByEventDate(
+                filter, after == null ? null : after.getEventDate(), after == null ? null : after.getId(), page
+        ).orElseThrow());
+    }
+
+    private List<Integer> walkDatabase(EventFilter filter) {
+        return walk(filter, (after, page) -> eventRepository.searchOrderByEventDate(
+                filter, after == null ? null : after.getEventDate(), after == null ? null : after.getId(), page
+        ));
+    }
+
+    private static List<Integer> walk(EventFilter filter, PageSource source) {
+        final List<Integer> ids = new ArrayList<>();
+        EventShortView after = null;
+        Slice<EventShortView> slice;
+        do {
+            slice = source.next(after, OffsetPageRequest.of(0, PAGE));
+            ids.addAll(ids(slice));
+            if (slice.hasContent()) {
+                after = slice.getContent().get(slice.getNumberOfElements() - 1);
+            }
+        } while (slice.hasNext());
+        return ids;
+    }
+
+    private static List<Integer> ids(Slice<EventShortView> slice) {
+        return slice.stream().map(EventShortView::getId).collect(Collectors.toList());
+    }
+
+    private static EventFilter.EventFilterBuilder filter() {
+        return EventFilter.builder()
+                .states(List.of(EventState.PUBLISHED))
+                .rangeStart(LocalDateTime.now())
+                .rangeEnd(LocalDateTime.now().plusYears(1000));
+    }
+
+    private Event save(int i, EventState state, LocalDateTime eventDate) {
+        return fixtures.save(fixtures.publishedEvent(initiator, categories.get(i % categories.size()))
+                .title("event " + i)
+                .eventDate(eventDate)
+                .paid(i % 2 == 0)
+                .participantLimit(i % 5 == 0 ? 0 : i % 3)
+                .confirmedRequests(i % 4)
+                .state(state));
+    }
+
+    private interface PageSource {
+        Slice<EventShortView> next(EventShortView after, Pageable page);
+    }
+}
@@ -0,0 +1,112 @@
+package ru.practicum.ewmserver.event.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.practicum.ewmserver.IntegrationTestBase;
+import ru.practicum.ewmserver.error.exception.DataConflictException;
+import ru.practicum.ewmserver.event.dto.EventRequestStatusUpdateRequest;
+import ru.practicum.ewmserver.event.dto.EventRequestStatusUpdateResult;
+import ru.practicum.ewmserver.event.model.Event;
+import ru.practicum.ewmserver.event.storage.EventRepository;
+import ru.practicum.ewmserver.request.dto.ParticipationRequestDto;
+import ru.practicum.ewmserver.request.model.Request;
+import ru.practicum.ewmserver.request.model.RequestStatus;
+import ru.practicum.ewmserver.request.storage.RequestRepository;
+import ru.practicum.ewmserver.user.model.User;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RequestStatusTransitionTest extends IntegrationTestBase {
+    private static final int PARTICIPANT_LIMIT = 100;
+    private static final int SUBMITTED = 150;
+    private static final int NOT_SUBMITTED = 20;
+
+    @Autowired
+    private PrivateEventService privateEventService;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private RequestRepository requestRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User initiator;
+    private Event event;
+    private final List<Integer> requestIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        initiator = fixtures.user("initiator");
+        event = fixtures.save(fixtures.publishedEvent(initiator, fixtures.category("category"))
+                .participantLimit(PARTICIPANT_LIMIT)
+                .requestModeration(true));
+        final List<User> requesters = fixtures.users("requester", SUBMITTED + NOT_SUBMITTED);
+        for (int i = 0; i < requesters.size(); i++) {
+            final Request request = fixtures.request(event, requesters.get(i), RequestStatus.PENDING);
+            if (i < SUBMITTED) {
+                requestIds.add(request.getId());
+            }
+        }
+    }
+
+    @Test
+    void confirmationFillsCapacityAndRejectsOverflow() {
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        final EventRequestStatusUpdateResult result = patch(requestIds, RequestStatus.CONFIRMED);
+
+        // The confirming update runs through JDBC and is not counted here.
+        assertEquals(6, statistics.getPrepareStatementCount());
+        assertEquals(requestIds.subList(0, PARTICIPANT_LIMIT), ids(result.getConfirmedRequests()));
+        assertEquals(requestIds.subList(PARTICIPANT_LIMIT, SUBMITTED), ids(result.getRejectedRequests()));
+        assertEquals(PARTICIPANT_LIMIT, eventRepository.findById(event.getId()).orElseThrow().getConfirmedRequests());
+        assertEquals(0, requestRepository.countRequestByEventIdAndStatus(event.getId(), RequestStatus.PENDING));
+        assertThrows(DataConflictException.class, () -> patch(requestIds, RequestStatus.CONFIRMED));
+    }
+
+    @Test
+    void confirmationBelowCapacityKeepsOtherRequestsPending() {
+        final EventRequestStatusUpdateResult result = patch(requestIds.subList(0, 10), RequestStatus.CONFIRMED);
+
+        assertEquals(requestIds.subList(0, 10), ids(result.getConfirmedRequests()));
+        assertEquals(List.of(), result.getRejectedRequests());
+        assertEquals(10, eventRepository.findById(event.getId()).orElseThrow().getConfirmedRequests());
+        assertEquals(
+                SUBMITTED + NOT_SUBMITTED - 10,
+                requestRepository.countRequestByEventIdAndStatus(event.getId(), RequestStatus.PENDING)
+        );
+    }
+
+    @Test
+    void confirmedRequestsCannotBeRejected() {
+        patch(requestIds.subList(0, 1), RequestStatus.CONFIRMED);
+
+        assertThrows(DataConflictException.class, () -> patch(requestIds.subList(0, 2), RequestStatus.REJECTED));
+        assertEquals(requestIds.subList(1, 2), ids(patch(requestIds.subList(1, 2), RequestStatus.REJECTED)
+                .getRejectedRequests()));
+    }
+
+    private EventRequestStatusUpdateResult patch(List<Integer> ids, RequestStatus status) {
+        return privateEventService.patchRequests(
+                EventRequestStatusUpdateRequest.builder().requestIds(ids).status(status).build(),
+                initiator.getId(),
+                event.getId()
+        );
+    }
+
+    private static List<Integer> ids(List<ParticipationRequestDto> requests) {
+        return requests.stream()
+                .map(ParticipationRequestDto::getId)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+}
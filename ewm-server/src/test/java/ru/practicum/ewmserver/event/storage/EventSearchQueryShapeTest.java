@@ -0,0 +1,122 @@
+package ru.practicum.ewmserver.event.storage;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.practicum.ewmserver.IntegrationTestBase;
+import ru.practicum.ewmserver.category.model.Category;
+import ru.practicum.ewmserver.event.model.Event;
+import ru.practicum.ewmserver.event.model.EventShortView;
+import ru.practicum.ewmserver.event.model.EventState;
+import ru.practicum.ewmserver.pagination.OffsetPageRequest;
+import ru.practicum.ewmserver.user.model.User;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventSearchQueryShapeTest extends IntegrationTestBase {
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User initiator;
+    private Category concerts;
+    private Category lectures;
+
+    @BeforeEach
+    void setUp() {
+        initiator = fixtures.user("initiator");
+        concerts = fixtures.category("concerts");
+        lectures = fixtures.category("lectures");
+        save("Jazz night", concerts, true, 1);
+        save("Lecture", lectures, false, 2);
+        save("Free concert", concerts, false, 3);
+    }
+
+    @Test
+    void onlySuppliedPredicatesAreEmitted() {
+        final Statistics statistics = statistics();
+        eventRepository.searchOrderByEventDate(EventFilter.builder().build(), null, null, OffsetPageRequest.of(0, 10));
+
+        final String query = single(statistics.getQueries());
+        final String where = query.substring(query.indexOf(" where "), query.indexOf(" order by "));
+        assertEquals(" where 1=1", where, query);
+        assertFalse(query.contains(" is null"), query);
+    }
+
+    @Test
+    void differentValuesShareOneQueryShape() {
+        final Statistics statistics = statistics();
+        final List<String> first = titles(EventFilter.builder()
+                .states(List.of(EventState.PUBLISHED))
+                .categoryIds(List.of(concerts.getId()))
+                .paid(false)
+                .rangeStart(LocalDateTime.now())
+                .rangeEnd(LocalDateTime.now().plusDays(10))
+                .build());
+        final List<String> second = titles(EventFilter.builder()
+                .states(List.of(EventState.PUBLISHED))
+                .categoryIds(List.of(lectures.getId()))
+                .paid(false)
+                .rangeStart(LocalDateTime.now().minusDays(1))
+                .rangeEnd(LocalDateTime.now().plusDays(20))
+                .build());
+
+        assertEquals(List.of("Free concert"), first);
+        assertEquals(List.of("Lecture"), second);
+        assertEquals(1, statistics.getQueries().length);
+    }
+
+    @Test
+    void adminSearchFiltersByInitiatorAndState() {
+        final List<String> titles = eventRepository.searchOrderById(
+                EventFilter.builder()
+                        .initiatorIds(List.of(initiator.getId()))
+                        .states(List.of(EventState.PUBLISHED, EventState.PENDING))
+                        .categoryIds(List.of(concerts.getId()))
+                        .build(),
+                null,
+                OffsetPageRequest.of(0, 10)
+        ).stream().map(Event::getTitle).collect(Collectors.toList());
+
+        assertEquals(List.of("Jazz night", "Free concert"), titles);
+        assertTrue(eventRepository.searchOrderById(
+                EventFilter.builder().initiatorIds(List.of(initiator.getId() + 1)).build(),
+                null,
+                OffsetPageRequest.of(0, 10)
+        ).isEmpty());
+    }
+
+    private List<String> titles(EventFilter filter) {
+        return eventRepository.searchOrderByEventDate(filter, null, null, OffsetPageRequest.of(0, 10)).stream()
+                .map(EventShortView::getTitle)
+                .collect(Collectors.toList());
+    }
+
+    private static String single(String[] queries) {
+        assertEquals(1, queries.length);
+        return queries[0];
+    }
+
+    private Statistics statistics() {
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private void save(String title, Category category, boolean paid, int daysAhead) {
+        fixtures.save(fixtures.publishedEvent(initiator, category)
+                .title(title)
+                .eventDate(LocalDateTime.now().plusDays(daysAhead))
+                .paid(paid));
+    }
+}
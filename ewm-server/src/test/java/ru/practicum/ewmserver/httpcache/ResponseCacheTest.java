@@ -0,0 +1,190 @@
+package ru.practicum.ewmserver.httpcache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.ewmserver.IntegrationTestBase;
+import ru.practicum.ewmserver.category.dto.CategoryDto;
+import ru.practicum.ewmserver.category.model.Category;
+import ru.practicum.ewmserver.category.service.AdminCategoryService;
+import ru.practicum.ewmserver.category.service.PublicCategoryService;
+import ru.practicum.ewmserver.compilation.dto.NewCompilationDto;
+import ru.practicum.ewmserver.compilation.dto.UpdateCompilationRequest;
+import ru.practicum.ewmserver.compilation.service.AdminCompilationService;
+import ru.practicum.ewmserver.compilation.service.PublicCompilationService;
+import ru.practicum.ewmserver.event.dto.UpdateEventAdminRequest;
+import ru.practicum.ewmserver.event.model.Event;
+import ru.practicum.ewmserver.event.service.AdminEventService;
+import ru.practicum.ewmserver.event.service.PublicEventService;
+import ru.practicum.ewmserver.user.model.User;
+import ru.practicum.ewmserver.user.service.AdminUserService;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Spies on the public services to count cache misses, so this class runs in its own application context.
+ */
+class ResponseCacheTest extends IntegrationTestBase {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private AdminCategoryService adminCategoryService;
+    @Autowired
+    private AdminCompilationService adminCompilationService;
+    @Autowired
+    private AdminEventService adminEventService;
+    @Autowired
+    private AdminUserService adminUserService;
+    @SpyBean
+    private PublicCategoryService publicCategoryService;
+    @SpyBean
+    private PublicCompilationService publicCompilationService;
+    @SpyBean
+    private PublicEventService publicEventService;
+
+    private User initiator;
+    private Category category;
+    private Event event;
+    private int compilationId;
+
+    @BeforeEach
+    void setUp() {
+        category = fixtures.category("category");
+        initiator = fixtures.user("initiator");
+        event = fixtures.save(fixtures.publishedEvent(initiator, category));
+        compilationId = adminCompilationService.postCompilation(
+                NewCompilationDto.builder().events(List.of(event.getId())).title("compilation").build()
+        ).getId();
+        clearInvocations(publicCategoryService, publicCompilationService, publicEventService);
+    }
+
+    @Test
+    void categoryIsServedFromCacheUntilRenamed() throws Exception {
+        final String uri = "/categories/" + category.getId();
+        final String etag = etag(uri);
+        mockMvc.perform(get(uri).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        verify(publicCategoryService, times(1)).getCategoryById(category.getId());
+
+        adminCategoryService.patchCategoryAdmin(CategoryDto.builder().name("renamed").build(), category.getId());
+        mockMvc.perform(get(uri).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("renamed")));
+        verify(publicCategoryService, times(2)).getCategoryById(category.getId());
+    }
+
+    @Test
+    void categoryListKeepsNextCursorHeader() throws Exception {
+        fixtures.category("second");
+        final String cursor = mockMvc.perform(get("/categories").param("size", "1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("X-Next-Cursor");
+        mockMvc.perform(get("/categories").param("size", "1"))
+                .andExpect(header().string("X-Next-Cursor", cursor));
+        verify(publicCategoryService, times(1)).getCategories(anyInt(), anyInt(), any());
+    }
+
+    @Test
+    void compilationIsInvalidatedByCompilationAndEventChanges() throws Exception {
+        final String uri = "/compilations/" + compilationId;
+        final String etag = etag(uri);
+        mockMvc.perform(get("/compilations").header(HttpHeaders.IF_NONE_MATCH, etag(("/compilations"))))
+                .andExpect(status().isNotModified());
+
+        adminCompilationService.patchCompilation(UpdateCompilationRequest.builder().title("renamed").build(), compilationId);
+        final String renamed = etag(uri);
+        assertNotEquals(etag, renamed);
+
+        adminEventService.patchEvent(UpdateEventAdminRequest.builder().title("new title").build(), event.getId(), null);
+        assertNotEquals(renamed, etag(uri));
+        verify(publicCompilationService, times(3)).getCompilationById(compilationId);
+        verify(publicCompilationService, times(1)).getCompilation(anyBoolean(), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    void compilationListShowsNewCompilation() throws Exception {
+        mockMvc.perform(get("/compilations"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(not(containsString("second compilation"))));
+
+        adminCompilationService.postCompilation(NewCompilationDto.builder().title("second compilation").build());
+        mockMvc.perform(get("/compilations"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("second compilation")));
+        verify(publicCompilationService, times(2)).getCompilation(anyBoolean(), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    void eventIsInvalidatedByAdminPatch() throws Exception {
+        final String uri = "/events/" + event.getId();
+        final String etag = etag(uri);
+        mockMvc.perform(get(uri).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        verify(publicEventService, times(1)).getEventById(event.getId());
+        verify(eventViewService, times(2)).recordView(event.getId());
+
+        adminEventService.patchEvent(UpdateEventAdminRequest.builder().title("new title").build(), event.getId(), null);
+        mockMvc.perform(get(uri).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("new title")));
+    }
+
+    @Test
+    void deletedUserEventsLeaveCachedResponses() throws Exception {
+        final String eventUri = "/events/" + event.getId();
+        final String compilationUri = "/compilations/" + compilationId;
+        etag(eventUri);
+        mockMvc.perform(get("/events"))
+                .andExpect(jsonPath("$[*].id", hasItem(event.getId())));
+        mockMvc.perform(get(compilationUri))
+                .andExpect(jsonPath("$.events[*].id", hasItem(event.getId())));
+        mockMvc.perform(get("/compilations"))
+                .andExpect(jsonPath("$[0].events[*].id", hasItem(event.getId())));
+
+        adminUserService.deleteUser(initiator.getId());
+        mockMvc.perform(get(eventUri)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/events"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", empty()));
+        mockMvc.perform(get(compilationUri))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.events", empty()));
+        mockMvc.perform(get("/compilations"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].events", empty()));
+    }
+
+    @Test
+    void missingEventIsNotCached() throws Exception {
+        mockMvc.perform(get("/events/" + (event.getId() + 1000))).andExpect(status().isNotFound());
+        mockMvc.perform(get("/events/" + (event.getId() + 1000))).andExpect(status().isNotFound());
+        verify(publicEventService, times(2)).getEventById(event.getId() + 1000);
+    }
+
+    private String etag(String uri) throws Exception {
+        return mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
@@ -0,0 +1,99 @@
+package ru.practicum.ewmserver.request.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.practicum.ewmserver.IntegrationTestBase;
+import ru.practicum.ewmserver.error.exception.DataConflictException;
+import ru.practicum.ewmserver.event.model.Event;
+import ru.practicum.ewmserver.event.storage.EventRepository;
+import ru.practicum.ewmserver.request.model.RequestStatus;
+import ru.practicum.ewmserver.request.storage.RequestRepository;
+import ru.practicum.ewmserver.user.model.User;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestAdmissionConcurrencyTest extends IntegrationTestBase {
+    private static final int REQUESTERS = 2000;
+    private static final int PARTICIPANT_LIMIT = 50;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private PrivateRequestService privateRequestService;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private RequestRepository requestRepository;
+
+    private final List<User> requesters = new ArrayList<>();
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        final User initiator = fixtures.user("initiator");
+        requesters.addAll(fixtures.users("requester", REQUESTERS));
+        event = fixtures.save(fixtures.publishedEvent(initiator, fixtures.category("category"))
+                .participantLimit(PARTICIPANT_LIMIT));
+    }
+
+    @Test
+    void concurrentRequestsNeverOverbook() throws InterruptedException {
+        final AtomicInteger admitted = new AtomicInteger();
+        final List<Throwable> failures = runConcurrently(REQUESTERS, i -> {
+            privateRequestService.postRequest(requesters.get(i).getId(), event.getId());
+            admitted.incrementAndGet();
+        });
+        assertEquals(PARTICIPANT_LIMIT, admitted.get());
+        assertEquals(REQUESTERS - PARTICIPANT_LIMIT, failures.size());
+        assertTrue(failures.stream().allMatch(DataConflictException.class::isInstance), failures::toString);
+        assertEquals(PARTICIPANT_LIMIT, eventRepository.findById(event.getId()).orElseThrow().getConfirmedRequests());
+        assertEquals(
+                PARTICIPANT_LIMIT,
+                requestRepository.countRequestByEventIdAndStatus(event.getId(), RequestStatus.CONFIRMED)
+        );
+    }
+
+    @Test
+    void concurrentDuplicatesCreateOneRequest() throws InterruptedException {
+        final int requesterId = requesters.get(0).getId();
+        final List<Throwable> failures = runConcurrently(THREADS * 4, i ->
+                privateRequestService.postRequest(requesterId, event.getId())
+        );
+        assertEquals(THREADS * 4 - 1, failures.size());
+        assertTrue(failures.stream().allMatch(DataConflictException.class::isInstance), failures::toString);
+        assertEquals(1, requestRepository.count());
+        assertEquals(1, eventRepository.findById(event.getId()).orElseThrow().getConfirmedRequests());
+    }
+
+    private static List<Throwable> runConcurrently(int tasks, IntConsumer task) throws InterruptedException {
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < tasks; i++) {
+            final int index = i;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    task.accept(index);
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+        return failures;
+    }
+}
@@ -0,0 +1,151 @@
+package ru.practicum.statclient;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import ru.practicum.statdto.dto.EndpointHitDto;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+public class HitSender {
+    private static final long SHUTDOWN_TIMEOUT_MS = 5000;
+
+    private final StatClient statClient;
+    private final boolean async;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final BlockingQueue<EndpointHitDto> queue;
+    private final AtomicLong droppedHits = new AtomicLong();
+    private final AtomicLong failedHits = new AtomicLong();
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    public HitSender(StatClient statClient,
+                     @Value("${stat-client.hits.async:true}") boolean async,
+                     @Value("${stat-client.hits.queue-capacity:10000}") int queueCapacity,
+                     @Value("${stat-client.hits.batch-size:100}") int batchSize,
+                     @Value("${stat-client.hits.linger-ms:1000}") long lingerMs,
+                     @Value("${stat-client.hits.overflow-policy:DROP_OLDEST}") OverflowPolicy overflowPolicy,
+                     ObjectProvider<MeterRegistry> meterRegistry) {
+        this.statClient = statClient;
+        this.async = async;
+        this.batchSize = batchSize;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        this.overflowPolicy = overflowPolicy;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.flusher = new Thread(this::flushLoop, "stat-hit-flusher");
+        this.flusher.setDaemon(true);
+        meterRegistry.ifAvailable(registry -> {
+            Gauge.builder("stat.client.hits.queue.depth", queue, BlockingQueue::size)
+                    .register(registry);
+            FunctionCounter.builder("stat.client.hits.dropped", droppedHits, AtomicLong::get)
+                    .register(registry);
+            FunctionCounter.builder("stat.client.hits.failed", failedHits, AtomicLong::get)
+                    .register(registry);
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        if (async) {
+            flusher.start();
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (async) {
+            flusher.join(SHUTDOWN_TIMEOUT_MS);
+        }
+    }
+
+    public void send(EndpointHitDto endpointHitDto) {
+        if (!async) {
+            post(List.of(endpointHitDto));
+            return;
+        }
+        switch (overflowPolicy) {
+            case BLOCK:
+                try {
+                    queue.put(endpointHitDto);
+                } catch (InterruptedException e) {
+                    droppedHits.incrementAndGet();
+                    Thread.currentThread().interrupt();
+                }
+                break;
+            case DROP_NEWEST:
+                if (!queue.offer(endpointHitDto)) {
+                    droppedHits.incrementAndGet();
+                }
+                break;
+            case DROP_OLDEST:
+                while (!queue.offer(endpointHitDto)) {
+                    if (queue.poll() != null) {
+                        droppedHits.incrementAndGet();
+                    }
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unknown overflow policy: " + overflowPolicy);
+        }
+    }
+
+    private void flushLoop() {
+        final List<EndpointHitDto> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                post(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void collect(List<EndpointHitDto> batch) throws InterruptedException {
+        final long deadline = System.nanoTime() + lingerNanos;
+        while (batch.size() < batchSize) {
+            final long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            final EndpointHitDto hit = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (hit == null) {
+                return;
+            }
+            batch.add(hit);
+            queue.drainTo(batch, batchSize - batch.size());
+        }
+    }
+
+    private void post(List<EndpointHitDto> batch) {
+        try {
+            statClient.postEndpointHits(batch);
+        } catch (RestClientException e) {
+            failedHits.addAndGet(batch.size());
+            log.warn("Failed to send {} hits to stat-server: {}", batch.size(), e.getMessage());
+        } catch (RuntimeException e) {
+            failedHits.addAndGet(batch.size());
+            log.error("Unexpected error while sending {} hits to stat-server", batch.size(), e);
+        }
+    }
+}
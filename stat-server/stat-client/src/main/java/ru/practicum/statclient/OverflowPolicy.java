@@ -0,0 +1,7 @@
+package ru.practicum.statclient;
+
+public enum OverflowPolicy {
+    DROP_OLDEST,
+    DROP_NEWEST,
+    BLOCK
+}
@@ -1,56 +1,225 @@
 package ru.practicum.statclient;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequest;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.statdto.dto.Constants;
 import ru.practicum.statdto.dto.EndpointHitDto;
+import ru.practicum.statdto.dto.ViewStatsDto;
 
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
+@Slf4j
 @Service
-public class StatClient extends BaseClient {
+public class StatClient {
     private static final String START = "start";
     private static final String END = "end";
+    private static final String URIS = "uris";
+    private static final String UNIQUE = "unique";
+    private static final String APPROXIMATE = "approximate";
+    private static final String HIT_PATH = "/hit";
+    private static final String HIT_BATCH_PATH = "/hit/batch";
+    private static final String STATS_PATH = "/stats?start={start}&end={end}&uris={uris}&unique={unique}&approximate={approximate}";
+    private static final String EVENT_URI_PREFIX = "/events/";
+    private static final int VIEWS_RANGE_YEARS = 1000;
 
-    @Autowired
-    public StatClient(@Value("${stat-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+    private final RestTemplate rest;
+    private final CloseableHttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader viewStatsReader;
+
+    public StatClient(@Value("${stat-server.url}") String serverUrl,
+                      @Value("${stat-client.http.max-connections:50}") int maxConnections,
+                      @Value("${stat-client.http.keep-alive-ms:30000}") long keepAliveMs,
+                      @Value("${stat-client.http.connect-timeout-ms:2000}") long connectTimeoutMs,
+                      @Value("${stat-client.http.read-timeout-ms:5000}") long readTimeoutMs,
+                      RestTemplateBuilder builder,
+                      ObjectMapper objectMapper) {
+        final PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+                keepAliveMs,
+                TimeUnit.MILLISECONDS
+        );
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy((response, context) -> keepAliveMs)
+                .evictIdleConnections(keepAliveMs, TimeUnit.MILLISECONDS)
+                .build();
+        this.rest = builder
+                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl))
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient))
+                .setConnectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .setReadTimeout(Duration.ofMillis(readTimeoutMs))
+                .build();
+        this.objectMapper = objectMapper;
+        this.viewStatsReader = objectMapper.readerFor(ViewStatsDto.class);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        httpClient.close();
+    }
+
+    public void postEndpointHit(EndpointHitDto endpointHitDto) {
+        rest.postForLocation(HIT_PATH, endpointHitDto);
+    }
+
+    public void postEndpointHits(List<EndpointHitDto> endpointHitDtos) {
+        rest.postForLocation(HIT_BATCH_PATH, endpointHitDtos);
+    }
+
+    public List<ViewStatsDto> getStat(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique) {
+        return getStat(start, end, uris, unique, null);
+    }
+
+    public List<ViewStatsDto> getStat(LocalDateTime start,
+                                      LocalDateTime end,
+                                      List<String> uris,
+                                      Boolean unique,
+                                      Boolean approximate) {
+        return rest.execute(
+                STATS_PATH,
+                HttpMethod.GET,
+                StatClient::acceptJson,
+                response -> readStats(response.getBody()),
+                statsParameters(start, end, uris, unique, approximate)
         );
     }
 
-    public ResponseEntity<Object> postEndpointHit(EndpointHitDto endpointHitDto) {
-        return post("/hit", endpointHitDto);
+    /**
+     * Returns all-time unique-ip views of the events, keyed by event id, using the approximate sketches.
+     */
+    public Map<Integer, Long> getViews(Collection<Integer> eventIds) {
+        return getViews(eventIds, true);
+    }
+
+    /**
+     * Returns all-time unique-ip views of the events, keyed by event id. Exact counts make the stat service scan
+     * every raw hit of the events, and it answers from sketches anyway once the range reaches past its raw hit
+     * retention, so callers that need exact counts should pass a range to the overload below.
+     */
+    public Map<Integer, Long> getViews(Collection<Integer> eventIds, boolean approximate) {
+        final LocalDateTime now = LocalDateTime.now();
+        return getViews(
+                eventIds,
+                now.minusYears(VIEWS_RANGE_YEARS),
+                now.plusYears(VIEWS_RANGE_YEARS),
+                true,
+                approximate
+        );
     }
 
-    public ResponseEntity<Object> getStat(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique) {
-        final String stringStart = start.format(Constants.FORMATTER);
-        final String stringEnd = end.format(Constants.FORMATTER);
-        final Map<String, Object> parameters = Map.of(
-                START, stringStart,
-                END, stringEnd
+    /**
+     * Returns views of the events between {@code start} and {@code end}, keyed by event id. Events without hits in
+     * the range map to zero.
+     */
+    public Map<Integer, Long> getViews(Collection<Integer> eventIds,
+                                       LocalDateTime start,
+                                       LocalDateTime end,
+                                       boolean unique,
+                                       boolean approximate) {
+        final Map<Integer, Long> views = new HashMap<>();
+        if (eventIds.isEmpty()) {
+            return views;
+        }
+        eventIds.forEach(eventId -> views.put(eventId, 0L));
+        final List<String> uris = eventIds.stream()
+                .map(eventId -> EVENT_URI_PREFIX + eventId)
+                .collect(Collectors.toList());
+        rest.execute(
+                STATS_PATH,
+                HttpMethod.GET,
+                StatClient::acceptJson,
+                response -> readViews(response.getBody(), views),
+                statsParameters(start, end, uris, unique, approximate)
         );
-        final StringJoiner pathBuilder = new StringJoiner("&", "/stats?start={start}&end={end}", "");
-        if (!uris.isEmpty()) {
-            uris.forEach(uri -> pathBuilder.add("&uris=" + uri));
+        return views;
+    }
+
+    private List<ViewStatsDto> readStats(InputStream body) throws IOException {
+        try (MappingIterator<ViewStatsDto> stats = viewStatsReader.readValues(body)) {
+            return stats.readAll();
+        }
+    }
+
+    private Map<Integer, Long> readViews(InputStream body, Map<Integer, Long> views) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return views;
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                String uri = null;
+                long hits = 0;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    final String field = parser.getCurrentName();
+                    parser.nextToken();
+                    if ("uri".equals(field)) {
+                        uri = parser.getValueAsString();
+                    } else if ("hits".equals(field)) {
+                        hits = parser.getValueAsLong();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                addViews(views, uri, hits);
+            }
         }
-        if (Objects.nonNull(unique)) {
-            pathBuilder.add("&unique=" + unique);
+        return views;
+    }
+
+    private static void addViews(Map<Integer, Long> views, String uri, long hits) {
+        if (uri == null || !uri.startsWith(EVENT_URI_PREFIX)) {
+            return;
         }
-        final String path = pathBuilder.toString();
-        return makeAndSendRequest(HttpMethod.GET, path, null, parameters, null);
+        try {
+            final int eventId = Integer.parseInt(uri.substring(EVENT_URI_PREFIX.length()));
+            views.computeIfPresent(eventId, (id, total) -> total + hits);
+        } catch (NumberFormatException e) {
+            log.debug("Skipping stats for unexpected uri {}", uri);
+        }
+    }
+
+    private static Map<String, Object> statsParameters(LocalDateTime start,
+                                                       LocalDateTime end,
+                                                       Collection<String> uris,
+                                                       Boolean unique,
+                                                       Boolean approximate) {
+        final Map<String, Object> parameters = new HashMap<>();
+        parameters.put(START, start.format(Constants.FORMATTER));
+        parameters.put(END, end.format(Constants.FORMATTER));
+        parameters.put(URIS, String.join(",", uris));
+        parameters.put(UNIQUE, unique == null ? "" : unique);
+        parameters.put(APPROXIMATE, approximate == null ? "" : approximate);
+        return parameters;
+    }
+
+    private static void acceptJson(ClientHttpRequest request) {
+        request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON));
     }
 }
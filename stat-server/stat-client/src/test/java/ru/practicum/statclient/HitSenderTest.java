@@ -0,0 +1,111 @@
+package ru.practicum.statclient;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import ru.practicum.statdto.dto.EndpointHitDto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class HitSenderTest {
+    private static final long LINGER_MS = 10;
+
+    private final StatClient statClient = mock(StatClient.class);
+    private final List<String> sent = Collections.synchronizedList(new ArrayList<>());
+    private HitSender hitSender;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        hitSender.stop();
+    }
+
+    @Test
+    void dropOldestKeepsLatestHits() throws InterruptedException {
+        recordSentHits();
+        hitSender = hitSender(2, OverflowPolicy.DROP_OLDEST);
+        send("/a", "/b", "/c");
+        hitSender.start();
+        hitSender.stop();
+        assertEquals(List.of("/b", "/c"), sent);
+    }
+
+    @Test
+    void dropNewestKeepsQueuedHits() throws InterruptedException {
+        recordSentHits();
+        hitSender = hitSender(2, OverflowPolicy.DROP_NEWEST);
+        send("/a", "/b", "/c");
+        hitSender.start();
+        hitSender.stop();
+        assertEquals(List.of("/a", "/b"), sent);
+    }
+
+    @Test
+    void blockWaitsForFreeSpace() throws InterruptedException {
+        recordSentHits();
+        hitSender = hitSender(1, OverflowPolicy.BLOCK);
+        send("/a");
+        final Thread caller = new Thread(() -> send("/b"));
+        caller.start();
+        caller.join(100);
+        assertTrue(caller.isAlive());
+
+        hitSender.start();
+        caller.join(TimeUnit.SECONDS.toMillis(5));
+        assertFalse(caller.isAlive());
+        hitSender.stop();
+        assertEquals(List.of("/a", "/b"), sent);
+    }
+
+    @Test
+    void flusherSurvivesUnexpectedFailure() throws InterruptedException {
+        doAnswer(invocation -> {
+            final List<EndpointHitDto> batch = invocation.getArgument(0);
+            if (batch.stream().anyMatch(hit -> hit.getUri().equals("/broken"))) {
+                throw new IllegalStateException("Connection pool shut down");
+            }
+            sent.addAll(uris(batch));
+            return null;
+        }).when(statClient).postEndpointHits(anyList());
+        hitSender = hitSender(10, OverflowPolicy.BLOCK);
+        hitSender.start();
+        send("/broken");
+        Thread.sleep(LINGER_MS * 10);
+        send("/a");
+        hitSender.stop();
+        assertEquals(List.of("/a"), sent);
+    }
+
+    @SuppressWarnings("unchecked")
+    private HitSender hitSender(int capacity, OverflowPolicy overflowPolicy) {
+        return new HitSender(statClient, true, capacity, 10, LINGER_MS, overflowPolicy,
+                mock(ObjectProvider.class, invocation -> null));
+    }
+
+    private void recordSentHits() {
+        doAnswer(invocation -> {
+            sent.addAll(uris(invocation.getArgument(0)));
+            return null;
+        }).when(statClient).postEndpointHits(anyList());
+    }
+
+    private void send(String... uris) {
+        for (String uri : uris) {
+            hitSender.send(EndpointHitDto.builder().app("test").uri(uri).ip("127.0.0.1").build());
+        }
+    }
+
+    private static List<String> uris(List<EndpointHitDto> batch) {
+        return batch.stream().map(EndpointHitDto::getUri).collect(Collectors.toList());
+    }
+}
@@ -1,24 +1,36 @@
 package ru.practicum.statservice.controller;
 
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import ru.practicum.statdto.dto.EndpointHitDto;
 import ru.practicum.statdto.dto.ViewStatsDto;
 import ru.practicum.statservice.service.StatService;
 
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.List;
 
 import static ru.practicum.statdto.dto.Constants.DATETIME_FORMAT;
 
 @RestController
-@RequiredArgsConstructor
 @Slf4j
 public class StatServiceControllerImpl {
     private final StatService statService;
+    private final ObjectReader endpointHitReader;
+
+    public StatServiceControllerImpl(StatService statService, ObjectMapper objectMapper) {
+        this.statService = statService;
+        this.endpointHitReader = objectMapper.readerFor(EndpointHitDto.class);
+    }
 
     @ResponseStatus(HttpStatus.CREATED)
     @PostMapping("/hit")
@@ -27,12 +39,29 @@ public class StatServiceControllerImpl {
         return statService.postEndpointHit(endpointHitDto);
     }
 
+    @ResponseStatus(HttpStatus.CREATED)
+    @PostMapping(value = "/hit/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public int postEndpoints(HttpServletRequest request) throws IOException {
+        log.debug("Вызван метод postEndpoints");
+        try (MappingIterator<EndpointHitDto> endpointHitDtos = endpointHitReader.readValues(request.getInputStream())) {
+            return statService.postEndpointHits(endpointHitDtos);
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getOriginalMessage());
+        } catch (RuntimeException e) {
+            if (e.getCause() instanceof JsonProcessingException) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+            }
+            throw e;
+        }
+    }
+
     @GetMapping("/stats")
     public List<ViewStatsDto> getStat(@RequestParam @DateTimeFormat(pattern = DATETIME_FORMAT) LocalDateTime start,
                                       @RequestParam @DateTimeFormat(pattern = DATETIME_FORMAT) LocalDateTime end,
                                       @RequestParam(defaultValue = "") List<String> uris,
-                                      @RequestParam(defaultValue = "false") Boolean unique) {
+                                      @RequestParam(defaultValue = "false") Boolean unique,
+                                      @RequestParam(defaultValue = "false") Boolean approximate) {
         log.debug("Вызван метод getStat");
-        return statService.getStat(start, end, uris, unique);
+        return statService.getStat(start, end, uris, unique, approximate);
     }
 }
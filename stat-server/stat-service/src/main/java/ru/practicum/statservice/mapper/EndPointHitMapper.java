@@ -1,11 +1,15 @@
 package ru.practicum.statservice.mapper;
 
 import lombok.experimental.UtilityClass;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
 import ru.practicum.statdto.dto.EndpointHitDto;
 import ru.practicum.statservice.model.EndpointHit;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 
+import static ru.practicum.statdto.dto.Constants.DATETIME_FORMAT;
 import static ru.practicum.statdto.dto.Constants.FORMATTER;
 
 @UtilityClass
@@ -22,12 +26,29 @@ public class EndPointHitMapper {
     }
 
     public static EndpointHit createEndPointHit(EndpointHitDto endpointHitDto) {
+        if (endpointHitDto.getApp() == null || endpointHitDto.getUri() == null || endpointHitDto.getIp() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "app, uri and ip are required");
+        }
         return EndpointHit.builder()
                 .id(endpointHitDto.getId())
                 .app(endpointHitDto.getApp())
                 .uri(endpointHitDto.getUri())
                 .ip(endpointHitDto.getIp())
-                .timestamp(LocalDateTime.parse(endpointHitDto.getTimestamp(), FORMATTER))
+                .timestamp(parseTimestamp(endpointHitDto.getTimestamp()))
                 .build();
     }
+
+    private static LocalDateTime parseTimestamp(String timestamp) {
+        if (timestamp == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "timestamp is required");
+        }
+        try {
+            return LocalDateTime.parse(timestamp, FORMATTER);
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    String.format("timestamp '%s' does not match %s", timestamp, DATETIME_FORMAT)
+            );
+        }
+    }
 }
@@ -0,0 +1,117 @@
+package ru.practicum.statservice.model;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * HyperLogLog distinct counter with 2^12 one-byte registers.
+ * <p>
+ * Above 2.5 * 4096 (about 10 000) distinct values the standard error of {@link #estimate()} is
+ * 1.04 / sqrt(4096), about 1.6%, so roughly 95% of estimates fall within 3.3% of the exact count.
+ * Below that the estimate switches to linear counting over the empty registers, whose standard error
+ * is sqrt(m * (e^t - t - 1)) / n for t = n / m: about 1% (a unit or two) for a hundred values, 1.1%
+ * at a thousand and 1.8% (around 180 values) just below the switch point.
+ * <p>
+ * Sketches are mergeable: the union of two sketches is their register-wise maximum, so distinct
+ * counts over a range are computed by merging per-bucket sketches. {@link #toBytes()} stores
+ * sparsely populated sketches as (index, value) pairs and switches to the dense register array
+ * once that is smaller.
+ */
+public class HyperLogLog {
+    private static final int PRECISION = 12;
+    private static final int REGISTERS = 1 << PRECISION;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+    private static final byte SPARSE = 0;
+    private static final byte DENSE = 1;
+    private static final int SPARSE_ENTRY_SIZE = 3;
+
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this.registers = new byte[REGISTERS];
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        final HyperLogLog sketch = new HyperLogLog();
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        final byte format = buffer.get();
+        if (format == DENSE) {
+            buffer.get(sketch.registers);
+        } else {
+            while (buffer.hasRemaining()) {
+                final int index = buffer.getShort() & 0xffff;
+                sketch.registers[index] = buffer.get();
+            }
+        }
+        return sketch;
+    }
+
+    public void add(String value) {
+        final long hash = hash(value);
+        final int index = (int) (hash >>> (Long.SIZE - PRECISION));
+        final byte rank = (byte) (Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    public void merge(HyperLogLog other) {
+        for (int i = 0; i < REGISTERS; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public byte[] toBytes() {
+        int populated = 0;
+        for (byte register : registers) {
+            if (register != 0) {
+                populated++;
+            }
+        }
+        if (populated * SPARSE_ENTRY_SIZE >= REGISTERS) {
+            return ByteBuffer.allocate(1 + REGISTERS)
+                    .put(DENSE)
+                    .put(registers)
+                    .array();
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(1 + populated * SPARSE_ENTRY_SIZE).put(SPARSE);
+        for (int i = 0; i < REGISTERS; i++) {
+            if (registers[i] != 0) {
+                buffer.putShort((short) i).put(registers[i]);
+            }
+        }
+        return buffer.array();
+    }
+
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb93fe53e87dbL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
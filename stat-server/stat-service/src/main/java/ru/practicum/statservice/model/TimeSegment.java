@@ -0,0 +1,18 @@
+package ru.practicum.statservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class TimeSegment {
+    private final RollupGranularity granularity;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+
+    public boolean isRaw() {
+        return granularity == null;
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.statservice.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Raw hit retention enforced by {@link PartitionMaintenanceJob}. Raw hits before the cutoff may already be dropped,
+ * so only rollups and sketches can answer for that period.
+ */
+@Component
+public class HitRetention {
+    @Value("${stat-service.partitions.enabled:true}")
+    private boolean enabled;
+    @Value("${stat-service.partitions.retention-days:90}")
+    private int retentionDays;
+
+    public Optional<LocalDate> getCutoff() {
+        if (!enabled || retentionDays <= 0) {
+            return Optional.empty();
+        }
+        return Optional.of(LocalDate.now().minusDays(retentionDays));
+    }
+
+    public boolean isRetained(LocalDateTime start) {
+        return getCutoff()
+                .map(cutoff -> !start.isBefore(cutoff.atStartOfDay()))
+                .orElse(true);
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.statservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.statservice.storage.EndpointHitPartitionRepository;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Keeps daily endpoint_hit partitions created ahead of time and drops raw partitions past the retention period.
+ * Past days that landed in the default partition are moved into their own partitions, or deleted once they fall
+ * out of retention.
+ * Rollup and sketch deltas are written in the same transaction as the raw hits, and exact unique-ip requests
+ * reaching before the {@link HitRetention} cutoff are answered from sketches. A dropped partition therefore only
+ * loses the sub-hour edge of ranges that start inside it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PartitionMaintenanceJob {
+    private final EndpointHitPartitionRepository partitionRepository;
+    private final HitRetention retention;
+    @Value("${stat-service.partitions.enabled:true}")
+    private boolean enabled;
+    @Value("${stat-service.partitions.ahead-days:7}")
+    private int aheadDays;
+
+    @Transactional
+    @Scheduled(initialDelay = 0, fixedDelayString = "${stat-service.partitions.maintenance-interval-ms:3600000}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        partitionRepository.lockMaintenance();
+        final LocalDate today = LocalDate.now();
+        final List<LocalDate> partitions = partitionRepository.getPartitionDays();
+        final Set<LocalDate> existing = new HashSet<>(partitions);
+        for (LocalDate day = today; !day.isAfter(today.plusDays(aheadDays)); day = day.plusDays(1)) {
+            if (!existing.contains(day)) {
+                log.info("Creating endpoint_hit partition for {}", day);
+                partitionRepository.createPartition(day);
+            }
+        }
+        final Optional<LocalDate> cutoff = retention.getCutoff();
+        if (cutoff.isPresent()) {
+            final int deleted = partitionRepository.deleteDefaultPartitionRowsBefore(cutoff.get());
+            if (deleted > 0) {
+                log.info("Deleted {} expired hits from endpoint_hit_default", deleted);
+            }
+        }
+        for (LocalDate day : partitionRepository.getDefaultPartitionDaysBefore(today)) {
+            log.info("Moving endpoint_hit_default rows for {} into their own partition", day);
+            partitionRepository.createPartition(day);
+        }
+        if (cutoff.isEmpty()) {
+            return;
+        }
+        for (LocalDate day : partitions) {
+            if (day.isBefore(cutoff.get())) {
+                log.info("Dropping endpoint_hit partition for {}", day);
+                partitionRepository.dropPartition(day);
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.statservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.statservice.model.RollupGranularity;
+import ru.practicum.statservice.storage.EndpointHitRollupRepository;
+import ru.practicum.statservice.storage.EndpointHitSketchRepository;
+
+/**
+ * Aggregates the hits stored before ingest started writing deltas. The migration that introduced the deltas records
+ * the last such hit id, so the backfill covers exactly those rows no matter what the merge job has written since.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RollupBackfillJob implements ApplicationRunner {
+    private final EndpointHitRollupRepository rollupRepository;
+    private final EndpointHitSketchRepository sketchRepository;
+    @Value("${stat-service.rollup.backfill-on-startup:true}")
+    private boolean enabled;
+    @Value("${stat-service.hits.batch-size:1000}")
+    private int batchSize;
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        rollupRepository.lockAggregates();
+        rollupRepository.getBackfillLastHitId().ifPresent(lastHitId -> {
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                log.info("Backfilling {} rollups from raw hits up to id {}", granularity, lastHitId);
+                rollupRepository.backfill(granularity, lastHitId);
+            }
+            log.info("Backfilling unique-ip sketches from raw hits up to id {}", lastHitId);
+            sketchRepository.backfill(lastHitId, batchSize);
+            rollupRepository.completeBackfill();
+        });
+    }
+}
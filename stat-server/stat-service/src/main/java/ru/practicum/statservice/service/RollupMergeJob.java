@@ -0,0 +1,35 @@
+package ru.practicum.statservice.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.statservice.storage.EndpointHitRollupRepository;
+import ru.practicum.statservice.storage.EndpointHitSketchRepository;
+
+/**
+ * Folds the deltas appended at ingest into the rollup and sketch rows. Only one merger runs at a time, so the hot
+ * month and day rows are written by a single transaction instead of by every ingest batch.
+ */
+@Component
+@RequiredArgsConstructor
+public class RollupMergeJob {
+    private final EndpointHitRollupRepository rollupRepository;
+    private final EndpointHitSketchRepository sketchRepository;
+    @Value("${stat-service.rollup.merge-enabled:true}")
+    private boolean enabled;
+    @Value("${stat-service.rollup.merge-batch-size:50000}")
+    private int mergeBatchSize;
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${stat-service.rollup.merge-interval-ms:1000}")
+    public void merge() {
+        if (!enabled) {
+            return;
+        }
+        rollupRepository.lockAggregates();
+        rollupRepository.mergePending(mergeBatchSize);
+        sketchRepository.mergePending(mergeBatchSize);
+    }
+}
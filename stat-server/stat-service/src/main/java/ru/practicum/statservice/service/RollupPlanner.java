@@ -0,0 +1,47 @@
+package ru.practicum.statservice.service;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.statservice.model.RollupGranularity;
+import ru.practicum.statservice.model.TimeSegment;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@UtilityClass
+public class RollupPlanner {
+
+    /**
+     * Splits the half-open range [start, end) into the coarsest aligned buckets that fit,
+     * in the order of the given granularities, leaving unaligned edges as raw segments.
+     */
+    public static List<TimeSegment> plan(LocalDateTime start, LocalDateTime end, List<RollupGranularity> granularities) {
+        final List<TimeSegment> segments = new ArrayList<>();
+        plan(start, end, granularities, 0, segments);
+        return segments;
+    }
+
+    private static void plan(LocalDateTime start,
+                             LocalDateTime end,
+                             List<RollupGranularity> granularities,
+                             int level,
+                             List<TimeSegment> segments) {
+        if (!start.isBefore(end)) {
+            return;
+        }
+        if (level == granularities.size()) {
+            segments.add(new TimeSegment(null, start, end));
+            return;
+        }
+        final RollupGranularity granularity = granularities.get(level);
+        final LocalDateTime alignedStart = granularity.ceil(start);
+        final LocalDateTime alignedEnd = granularity.floor(end);
+        if (!alignedStart.isBefore(alignedEnd)) {
+            plan(start, end, granularities, level + 1, segments);
+            return;
+        }
+        plan(start, alignedStart, granularities, level + 1, segments);
+        segments.add(new TimeSegment(granularity, alignedStart, alignedEnd));
+        plan(alignedEnd, end, granularities, level + 1, segments);
+    }
+}
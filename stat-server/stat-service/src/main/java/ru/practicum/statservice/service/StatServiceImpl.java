@@ -1,6 +1,7 @@
 package ru.practicum.statservice.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -9,40 +10,92 @@ import ru.practicum.statdto.dto.EndpointHitDto;
 import ru.practicum.statdto.dto.ViewStatsDto;
 import ru.practicum.statservice.mapper.EndPointHitMapper;
 import ru.practicum.statservice.model.EndpointHit;
+import ru.practicum.statservice.model.RollupGranularity;
+import ru.practicum.statservice.model.TimeSegment;
+import ru.practicum.statservice.storage.EndpointHitRollupRepository;
+import ru.practicum.statservice.storage.EndpointHitSketchRepository;
 import ru.practicum.statservice.storage.StatServiceRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class StatServiceImpl implements StatService {
 
+    private static final List<RollupGranularity> ROLLUP_LEVELS = List.of(RollupGranularity.values());
+
     private final StatServiceRepository statServiceRepository;
+    private final EndpointHitRollupRepository rollupRepository;
+    private final EndpointHitSketchRepository sketchRepository;
+    private final HitRetention retention;
+    @Value("${stat-service.hits.batch-size:1000}")
+    private int batchSize;
 
     @Transactional
     @Override
     public EndpointHitDto postEndpointHit(EndpointHitDto endpointHitDto) {
         EndpointHit endpointHit = EndPointHitMapper.createEndPointHit(endpointHitDto);
         EndpointHit endpointHitFromDb = statServiceRepository.save(endpointHit);
+        rollupRepository.addPending(List.of(endpointHitFromDb));
+        sketchRepository.addPending(List.of(endpointHitFromDb));
         return EndPointHitMapper.createEndPointHitDto(endpointHitFromDb);
     }
 
+    @Transactional
+    @Override
+    public int postEndpointHits(Iterator<EndpointHitDto> endpointHitDtos) {
+        final List<EndpointHit> batch = new ArrayList<>(batchSize);
+        int saved = 0;
+        while (endpointHitDtos.hasNext()) {
+            batch.add(EndPointHitMapper.createEndPointHit(endpointHitDtos.next()));
+            if (batch.size() == batchSize) {
+                saved += saveBatch(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            saved += saveBatch(batch);
+        }
+        return saved;
+    }
+
     @Transactional(readOnly = true)
     @Override
-    public List<ViewStatsDto> getStat(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique) {
+    public List<ViewStatsDto> getStat(LocalDateTime start,
+                                      LocalDateTime end,
+                                      List<String> uris,
+                                      Boolean unique,
+                                      Boolean approximate) {
         if (end.isBefore(start)) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Start must be before end");
         }
+        final LocalDateTime endExclusive = end.truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        if (unique && (approximate || !retention.isRetained(start))) {
+            final List<TimeSegment> segments = RollupPlanner.plan(
+                    start,
+                    endExclusive,
+                    EndpointHitSketchRepository.SKETCH_LEVELS
+            );
+            return sketchRepository.getUniqueStat(segments, uris);
+        }
         if (unique) {
             if (uris.isEmpty()) {
                 return statServiceRepository.getStatNoUrisUniqueIp(start, end);
             }
             return statServiceRepository.getStatUniqueIp(start, end, uris);
         }
-        if (uris.isEmpty()) {
-            return statServiceRepository.getStatNoUris(start, end);
-        }
-        return statServiceRepository.getStat(start, end, uris);
+        final List<TimeSegment> segments = RollupPlanner.plan(start, endExclusive, ROLLUP_LEVELS);
+        return rollupRepository.getStat(segments, uris);
+    }
+
+    private int saveBatch(List<EndpointHit> batch) {
+        final int saved = statServiceRepository.insertAll(batch);
+        rollupRepository.addPending(batch);
+        sketchRepository.addPending(batch);
+        return saved;
     }
 }
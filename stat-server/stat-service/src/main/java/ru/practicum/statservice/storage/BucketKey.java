@@ -0,0 +1,38 @@
+package ru.practicum.statservice.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.statservice.model.EndpointHit;
+import ru.practicum.statservice.model.RollupGranularity;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+@Getter
+@AllArgsConstructor
+class BucketKey {
+    static final Comparator<BucketKey> ORDER = Comparator
+            .comparing(BucketKey::getGranularity)
+            .thenComparing(BucketKey::getBucketStart)
+            .thenComparing(BucketKey::getApp)
+            .thenComparing(BucketKey::getUri);
+
+    private final RollupGranularity granularity;
+    private final LocalDateTime bucketStart;
+    private final String app;
+    private final String uri;
+
+    static BucketKey of(RollupGranularity granularity, EndpointHit endpointHit) {
+        return new BucketKey(
+                granularity,
+                granularity.floor(endpointHit.getTimestamp()),
+                endpointHit.getApp(),
+                endpointHit.getUri()
+        );
+    }
+
+    Timestamp getBucketStartTimestamp() {
+        return Timestamp.valueOf(bucketStart);
+    }
+}
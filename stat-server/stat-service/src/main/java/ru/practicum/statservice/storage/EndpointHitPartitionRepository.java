@@ -0,0 +1,96 @@
+package ru.practicum.statservice.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+@Repository
+@RequiredArgsConstructor
+public class EndpointHitPartitionRepository {
+    private static final String PARTITION_PREFIX = "endpoint_hit_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final long MAINTENANCE_LOCK = 0x656e64706f696e74L;
+    private static final String SELECT_PARTITIONS = "select c.relname " +
+            "from pg_inherits as i " +
+            "join pg_class as c on c.oid = i.inhrelid " +
+            "join pg_class as p on p.oid = i.inhparent " +
+            "where p.relname = 'endpoint_hit'";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void lockMaintenance() {
+        jdbcTemplate.query("select pg_advisory_xact_lock(?)", ResultSet::next, MAINTENANCE_LOCK);
+    }
+
+    public List<LocalDate> getPartitionDays() {
+        return jdbcTemplate.queryForList(SELECT_PARTITIONS, String.class).stream()
+                .map(EndpointHitPartitionRepository::parseDay)
+                .filter(Objects::nonNull)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    public void createPartition(LocalDate day) {
+        final String partition = partitionName(day);
+        final Timestamp from = Timestamp.valueOf(day.atStartOfDay());
+        final Timestamp to = Timestamp.valueOf(day.plusDays(1).atStartOfDay());
+        final Boolean hasDefaultRows = jdbcTemplate.queryForObject(
+                "select exists(select 1 from endpoint_hit_default where hit_time >= ? and hit_time < ?)",
+                Boolean.class,
+                from,
+                to
+        );
+        final String bounds = String.format("for values from ('%s') to ('%s')", day, day.plusDays(1));
+        if (!Boolean.TRUE.equals(hasDefaultRows)) {
+            jdbcTemplate.execute("create table " + partition + " partition of endpoint_hit " + bounds);
+            return;
+        }
+        jdbcTemplate.execute("create table " + partition + " (like endpoint_hit including defaults including constraints)");
+        jdbcTemplate.update(
+                "with moved as (" +
+                        "delete from endpoint_hit_default where hit_time >= ? and hit_time < ? returning *) " +
+                        "insert into " + partition + " select * from moved",
+                from,
+                to
+        );
+        jdbcTemplate.execute("alter table endpoint_hit attach partition " + partition + " " + bounds);
+    }
+
+    public List<LocalDate> getDefaultPartitionDaysBefore(LocalDate day) {
+        return jdbcTemplate.queryForList(
+                "select distinct cast(hit_time as date) from endpoint_hit_default where hit_time < ? order by 1",
+                LocalDate.class,
+                Timestamp.valueOf(day.atStartOfDay())
+        );
+    }
+
+    public int deleteDefaultPartitionRowsBefore(LocalDate day) {
+        return jdbcTemplate.update(
+                "delete from endpoint_hit_default where hit_time < ?",
+                Timestamp.valueOf(day.atStartOfDay())
+        );
+    }
+
+    public void dropPartition(LocalDate day) {
+        jdbcTemplate.execute("drop table if exists " + partitionName(day));
+    }
+
+    private static String partitionName(LocalDate day) {
+        return PARTITION_PREFIX + day.format(PARTITION_SUFFIX);
+    }
+
+    private static LocalDate parseDay(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        return LocalDate.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+    }
+}
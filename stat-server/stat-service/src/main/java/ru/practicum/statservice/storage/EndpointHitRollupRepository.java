@@ -0,0 +1,126 @@
+package ru.practicum.statservice.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.statdto.dto.ViewStatsDto;
+import ru.practicum.statservice.model.EndpointHit;
+import ru.practicum.statservice.model.RollupGranularity;
+import ru.practicum.statservice.model.TimeSegment;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+@Repository
+@RequiredArgsConstructor
+public class EndpointHitRollupRepository {
+    private static final long MERGE_LOCK = 0x726f6c6c7570L;
+    private static final String INSERT_DELTA = "insert into endpoint_hit_rollup_delta " +
+            "(granularity, bucket_start, app_name, uri, hits) " +
+            "values (:granularity, :bucketStart, :app, :uri, :hits)";
+    private static final String MERGE_DELTAS = "with moved as (" +
+            "delete from endpoint_hit_rollup_delta where id in (" +
+            "select id from endpoint_hit_rollup_delta order by id limit :limit) " +
+            "returning granularity, bucket_start, app_name, uri, hits) " +
+            "insert into endpoint_hit_rollup (granularity, bucket_start, app_name, uri, hits) " +
+            "select granularity, bucket_start, app_name, uri, sum(hits) from moved " +
+            "group by granularity, bucket_start, app_name, uri " +
+            "order by granularity, bucket_start, app_name, uri " +
+            "on conflict (granularity, bucket_start, app_name, uri) " +
+            "do update set hits = endpoint_hit_rollup.hits + excluded.hits";
+    private static final String BACKFILL_ROLLUP = "insert into endpoint_hit_rollup (granularity, bucket_start, app_name, uri, hits) " +
+            "select '%s', date_trunc('%s', hit_time), app_name, uri, count(*) " +
+            "from endpoint_hit " +
+            "where id <= :lastHitId " +
+            "group by 2, 3, 4 " +
+            "on conflict (granularity, bucket_start, app_name, uri) " +
+            "do update set hits = endpoint_hit_rollup.hits + excluded.hits";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Records the batch as pending per-bucket deltas. Ingest only appends rows here, so concurrent batches never
+     * wait on the shared rollup rows; {@link #mergePending(int)} folds the deltas in from a single merger.
+     */
+    public void addPending(List<EndpointHit> endpointHits) {
+        final Map<BucketKey, Long> counts = new TreeMap<>(BucketKey.ORDER);
+        for (EndpointHit endpointHit : endpointHits) {
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                counts.merge(BucketKey.of(granularity, endpointHit), 1L, Long::sum);
+            }
+        }
+        final List<MapSqlParameterSource> batch = new ArrayList<>(counts.size());
+        counts.forEach((key, hits) -> batch.add(new MapSqlParameterSource()
+                .addValue("granularity", key.getGranularity().name())
+                .addValue("bucketStart", key.getBucketStartTimestamp())
+                .addValue("app", key.getApp())
+                .addValue("uri", key.getUri())
+                .addValue("hits", hits)));
+        jdbcTemplate.batchUpdate(INSERT_DELTA, batch.toArray(new MapSqlParameterSource[0]));
+    }
+
+    /**
+     * Serializes mergers and backfill across instances until the end of the transaction.
+     */
+    public void lockAggregates() {
+        jdbcTemplate.getJdbcTemplate().query("select pg_advisory_xact_lock(?)", ResultSet::next, MERGE_LOCK);
+    }
+
+    public int mergePending(int limit) {
+        return jdbcTemplate.update(MERGE_DELTAS, new MapSqlParameterSource("limit", limit));
+    }
+
+    public List<ViewStatsDto> getStat(List<TimeSegment> segments, List<String> uris) {
+        final MapSqlParameterSource parameters = new MapSqlParameterSource();
+        final String rollupRanges = SegmentSql.bucketRanges(segments, parameters);
+        final String rawRanges = SegmentSql.rawRanges(segments, parameters);
+        final String uriFilter = SegmentSql.uriFilter(uris, parameters);
+        final List<String> parts = new ArrayList<>(2);
+        if (!rollupRanges.isEmpty()) {
+            parts.add("select app_name, uri, hits from endpoint_hit_rollup where " + rollupRanges + " " + uriFilter);
+            parts.add("select app_name, uri, hits from endpoint_hit_rollup_delta where " + rollupRanges + " " + uriFilter);
+        }
+        if (!rawRanges.isEmpty()) {
+            parts.add("select app_name, uri, count(*) as hits from endpoint_hit where " + rawRanges + " " + uriFilter +
+                    "group by app_name, uri");
+        }
+        if (parts.isEmpty()) {
+            return List.of();
+        }
+        final String sql = "select app_name, uri, sum(hits) as hits " +
+                "from (" + String.join(" union all ", parts) + ") as segments " +
+                "group by app_name, uri " +
+                "order by sum(hits) desc";
+        return jdbcTemplate.query(sql, parameters, (rs, rowNum) -> new ViewStatsDto(
+                rs.getString("app_name"),
+                rs.getString("uri"),
+                rs.getLong("hits")
+        ));
+    }
+
+    /**
+     * Returns the id of the last hit stored before ingest started writing deltas, while that backfill is pending.
+     */
+    public Optional<Long> getBackfillLastHitId() {
+        return jdbcTemplate.getJdbcTemplate().queryForList(
+                "select last_hit_id from rollup_backfill where id = 1 and not completed",
+                Long.class
+        ).stream().findFirst();
+    }
+
+    public void completeBackfill() {
+        jdbcTemplate.getJdbcTemplate().update("update rollup_backfill set completed = true where id = 1");
+    }
+
+    public void backfill(RollupGranularity granularity, long lastHitId) {
+        jdbcTemplate.update(
+                String.format(BACKFILL_ROLLUP, granularity.name(), granularity.name().toLowerCase()),
+                new MapSqlParameterSource("lastHitId", lastHitId)
+        );
+    }
+}
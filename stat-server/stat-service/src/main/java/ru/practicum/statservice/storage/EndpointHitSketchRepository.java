@@ -0,0 +1,220 @@
+package ru.practicum.statservice.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.statdto.dto.ViewStatsDto;
+import ru.practicum.statservice.model.EndpointHit;
+import ru.practicum.statservice.model.HyperLogLog;
+import ru.practicum.statservice.model.RollupGranularity;
+import ru.practicum.statservice.model.TimeSegment;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+
+@Repository
+@RequiredArgsConstructor
+public class EndpointHitSketchRepository {
+    public static final List<RollupGranularity> SKETCH_LEVELS = List.of(
+            RollupGranularity.MONTH,
+            RollupGranularity.DAY,
+            RollupGranularity.HOUR
+    );
+    private static final String INSERT_EMPTY_SKETCH = "insert into endpoint_hit_sketch (granularity, bucket_start, app_name, uri, registers) " +
+            "values (:granularity, :bucketStart, :app, :uri, :registers) " +
+            "on conflict (granularity, bucket_start, app_name, uri) do nothing";
+    private static final String UPDATE_SKETCH = "update endpoint_hit_sketch set registers = :registers " +
+            "where granularity = :granularity and bucket_start = :bucketStart and app_name = :app and uri = :uri";
+    private static final String INSERT_DELTA = "insert into endpoint_hit_sketch_delta " +
+            "(granularity, bucket_start, app_name, uri, registers) " +
+            "values (:granularity, :bucketStart, :app, :uri, :registers)";
+    private static final String MOVE_DELTAS = "delete from endpoint_hit_sketch_delta where id in (" +
+            "select id from endpoint_hit_sketch_delta order by id limit :limit) " +
+            "returning granularity, bucket_start, app_name, uri, registers";
+    private static final int BACKFILL_FETCH_SIZE = 10000;
+    private static final int KEYS_PER_LOCK = 1000;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Records one sketch per bucket of the batch as a pending delta. Like the rollup deltas, these are only appended
+     * at ingest and folded into endpoint_hit_sketch by {@link #mergePending(int)}.
+     */
+    public void addPending(List<EndpointHit> endpointHits) {
+        final Map<BucketKey, HyperLogLog> sketches = sketches(endpointHits);
+        final List<MapSqlParameterSource> inserts = new ArrayList<>(sketches.size());
+        sketches.forEach((key, sketch) -> inserts.add(keyParameters(key).addValue("registers", sketch.toBytes())));
+        jdbcTemplate.batchUpdate(INSERT_DELTA, inserts.toArray(new MapSqlParameterSource[0]));
+    }
+
+    /**
+     * Folds up to {@code limit} pending deltas into endpoint_hit_sketch and returns how many were consumed.
+     * Callers hold {@link EndpointHitRollupRepository#lockAggregates()}.
+     */
+    public int mergePending(int limit) {
+        final Map<BucketKey, HyperLogLog> updates = new TreeMap<>(BucketKey.ORDER);
+        final int[] consumed = {0};
+        jdbcTemplate.query(MOVE_DELTAS, new MapSqlParameterSource("limit", limit), (RowCallbackHandler) rs -> {
+            final HyperLogLog sketch = HyperLogLog.fromBytes(rs.getBytes("registers"));
+            updates.merge(key(rs), sketch, (merged, next) -> {
+                merged.merge(next);
+                return merged;
+            });
+            consumed[0]++;
+        });
+        apply(updates);
+        return consumed[0];
+    }
+
+    /**
+     * Merges the batch straight into endpoint_hit_sketch. Used by backfill, which runs under
+     * {@link EndpointHitRollupRepository#lockAggregates()}.
+     */
+    public void add(List<EndpointHit> endpointHits) {
+        apply(sketches(endpointHits));
+    }
+
+    private void apply(Map<BucketKey, HyperLogLog> updates) {
+        if (updates.isEmpty()) {
+            return;
+        }
+        final byte[] empty = new HyperLogLog().toBytes();
+        final List<MapSqlParameterSource> inserts = new ArrayList<>(updates.size());
+        updates.keySet().forEach(key -> inserts.add(keyParameters(key).addValue("registers", empty)));
+        jdbcTemplate.batchUpdate(INSERT_EMPTY_SKETCH, inserts.toArray(new MapSqlParameterSource[0]));
+
+        final List<BucketKey> keys = new ArrayList<>(updates.keySet());
+        final List<MapSqlParameterSource> merged = new ArrayList<>(updates.size());
+        for (int from = 0; from < keys.size(); from += KEYS_PER_LOCK) {
+            lockSketches(keys.subList(from, Math.min(from + KEYS_PER_LOCK, keys.size())), updates, merged);
+        }
+        jdbcTemplate.batchUpdate(UPDATE_SKETCH, merged.toArray(new MapSqlParameterSource[0]));
+    }
+
+    private void lockSketches(List<BucketKey> keys,
+                              Map<BucketKey, HyperLogLog> updates,
+                              List<MapSqlParameterSource> merged) {
+        final MapSqlParameterSource parameters = new MapSqlParameterSource();
+        final StringJoiner tuples = new StringJoiner(", ");
+        for (int i = 0; i < keys.size(); i++) {
+            final BucketKey key = keys.get(i);
+            parameters.addValue("granularity" + i, key.getGranularity().name())
+                    .addValue("bucketStart" + i, key.getBucketStartTimestamp())
+                    .addValue("app" + i, key.getApp())
+                    .addValue("uri" + i, key.getUri());
+            tuples.add(String.format("(:granularity%d, :bucketStart%d, :app%d, :uri%d)", i, i, i, i));
+        }
+        final String lockSketches = "select granularity, bucket_start, app_name, uri, registers " +
+                "from endpoint_hit_sketch " +
+                "where (granularity, bucket_start, app_name, uri) in (" + tuples + ") " +
+                "order by granularity, bucket_start, app_name, uri " +
+                "for update";
+        jdbcTemplate.query(lockSketches, parameters, (RowCallbackHandler) rs -> {
+            final BucketKey key = key(rs);
+            final HyperLogLog sketch = HyperLogLog.fromBytes(rs.getBytes("registers"));
+            sketch.merge(updates.get(key));
+            merged.add(keyParameters(key).addValue("registers", sketch.toBytes()));
+        });
+    }
+
+    public List<ViewStatsDto> getUniqueStat(List<TimeSegment> segments, List<String> uris) {
+        final MapSqlParameterSource parameters = new MapSqlParameterSource();
+        final String sketchRanges = SegmentSql.bucketRanges(segments, parameters);
+        final String rawRanges = SegmentSql.rawRanges(segments, parameters);
+        final String uriFilter = SegmentSql.uriFilter(uris, parameters);
+        final Map<String, Map<String, HyperLogLog>> sketches = new HashMap<>();
+        if (!sketchRanges.isEmpty()) {
+            jdbcTemplate.query(
+                    "select app_name, uri, registers from endpoint_hit_sketch where " + sketchRanges + " " + uriFilter +
+                            "union all " +
+                            "select app_name, uri, registers from endpoint_hit_sketch_delta where " + sketchRanges +
+                            " " + uriFilter,
+                    parameters,
+                    (RowCallbackHandler) rs -> sketch(sketches, rs.getString("app_name"), rs.getString("uri"))
+                            .merge(HyperLogLog.fromBytes(rs.getBytes("registers")))
+            );
+        }
+        if (!rawRanges.isEmpty()) {
+            jdbcTemplate.query(
+                    "select distinct app_name, uri, ip from endpoint_hit where " + rawRanges + " " + uriFilter,
+                    parameters,
+                    (RowCallbackHandler) rs -> sketch(sketches, rs.getString("app_name"), rs.getString("uri"))
+                            .add(rs.getString("ip"))
+            );
+        }
+        final List<ViewStatsDto> stats = new ArrayList<>();
+        sketches.forEach((app, byUri) -> byUri.forEach((uri, sketch) ->
+                stats.add(new ViewStatsDto(app, uri, sketch.estimate()))));
+        stats.sort(Comparator.comparing(ViewStatsDto::getHits).reversed());
+        return stats;
+    }
+
+    public void backfill(long lastHitId, int batchSize) {
+        final List<EndpointHit> batch = new ArrayList<>(batchSize);
+        jdbcTemplate.getJdbcTemplate().query(connection -> {
+            final PreparedStatement statement = connection.prepareStatement(
+                    "select app_name, uri, ip, hit_time from endpoint_hit where id <= ?"
+            );
+            statement.setLong(1, lastHitId);
+            statement.setFetchSize(BACKFILL_FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            batch.add(EndpointHit.builder()
+                    .app(rs.getString("app_name"))
+                    .uri(rs.getString("uri"))
+                    .ip(rs.getString("ip"))
+                    .timestamp(rs.getTimestamp("hit_time").toLocalDateTime())
+                    .build());
+            if (batch.size() == batchSize) {
+                add(batch);
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty()) {
+            add(batch);
+        }
+    }
+
+    private static Map<BucketKey, HyperLogLog> sketches(List<EndpointHit> endpointHits) {
+        final Map<BucketKey, HyperLogLog> sketches = new TreeMap<>(BucketKey.ORDER);
+        for (EndpointHit endpointHit : endpointHits) {
+            for (RollupGranularity granularity : SKETCH_LEVELS) {
+                sketches.computeIfAbsent(BucketKey.of(granularity, endpointHit), key -> new HyperLogLog())
+                        .add(endpointHit.getIp());
+            }
+        }
+        return sketches;
+    }
+
+    private static BucketKey key(ResultSet rs) throws SQLException {
+        return new BucketKey(
+                RollupGranularity.valueOf(rs.getString("granularity")),
+                rs.getTimestamp("bucket_start").toLocalDateTime(),
+                rs.getString("app_name"),
+                rs.getString("uri")
+        );
+    }
+
+    private static HyperLogLog sketch(Map<String, Map<String, HyperLogLog>> sketches, String app, String uri) {
+        return sketches.computeIfAbsent(app, key -> new HashMap<>())
+                .computeIfAbsent(uri, key -> new HyperLogLog());
+    }
+
+    private static MapSqlParameterSource keyParameters(BucketKey key) {
+        return new MapSqlParameterSource()
+                .addValue("granularity", key.getGranularity().name())
+                .addValue("bucketStart", key.getBucketStartTimestamp())
+                .addValue("app", key.getApp())
+                .addValue("uri", key.getUri());
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.statservice.storage;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import ru.practicum.statservice.model.TimeSegment;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.StringJoiner;
+
+@UtilityClass
+class SegmentSql {
+
+    static String bucketRanges(List<TimeSegment> segments, MapSqlParameterSource parameters) {
+        final StringJoiner ranges = new StringJoiner(" or ", "(", ")");
+        ranges.setEmptyValue("");
+        for (int i = 0; i < segments.size(); i++) {
+            final TimeSegment segment = segments.get(i);
+            if (!segment.isRaw()) {
+                addBounds(segment, i, parameters);
+                parameters.addValue("granularity" + i, segment.getGranularity().name());
+                ranges.add(String.format(
+                        "(granularity = :granularity%d and bucket_start >= :start%d and bucket_start < :end%d)", i, i, i
+                ));
+            }
+        }
+        return ranges.toString();
+    }
+
+    static String rawRanges(List<TimeSegment> segments, MapSqlParameterSource parameters) {
+        final StringJoiner ranges = new StringJoiner(" or ", "(", ")");
+        ranges.setEmptyValue("");
+        for (int i = 0; i < segments.size(); i++) {
+            final TimeSegment segment = segments.get(i);
+            if (segment.isRaw()) {
+                addBounds(segment, i, parameters);
+                ranges.add(String.format("(hit_time >= :start%d and hit_time < :end%d)", i, i));
+            }
+        }
+        return ranges.toString();
+    }
+
+    static String uriFilter(List<String> uris, MapSqlParameterSource parameters) {
+        if (uris.isEmpty()) {
+            return "";
+        }
+        parameters.addValue("uris", uris);
+        return "and uri in (:uris) ";
+    }
+
+    private static void addBounds(TimeSegment segment, int index, MapSqlParameterSource parameters) {
+        parameters.addValue("start" + index, Timestamp.valueOf(segment.getStart()));
+        parameters.addValue("end" + index, Timestamp.valueOf(segment.getEnd()));
+    }
+}
@@ -0,0 +1,9 @@
+package ru.practicum.statservice.storage;
+
+import ru.practicum.statservice.model.EndpointHit;
+
+import java.util.List;
+
+public interface StatServiceRepositoryCustom {
+    int insertAll(List<EndpointHit> endpointHits);
+}
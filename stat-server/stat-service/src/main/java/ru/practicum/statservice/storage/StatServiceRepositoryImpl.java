@@ -0,0 +1,38 @@
+package ru.practicum.statservice.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.statservice.model.EndpointHit;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class StatServiceRepositoryImpl implements StatServiceRepositoryCustom {
+    private static final String INSERT_HIT = "insert into endpoint_hit (app_name, uri, ip, hit_time) values (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int insertAll(List<EndpointHit> endpointHits) {
+        jdbcTemplate.batchUpdate(INSERT_HIT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                final EndpointHit endpointHit = endpointHits.get(i);
+                ps.setString(1, endpointHit.getApp());
+                ps.setString(2, endpointHit.getUri());
+                ps.setString(3, endpointHit.getIp());
+                ps.setTimestamp(4, Timestamp.valueOf(endpointHit.getTimestamp()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return endpointHits.size();
+            }
+        });
+        return endpointHits.size();
+    }
+}
@@ -0,0 +1,28 @@
+create table if not exists endpoint_hit
+(
+    id       serial constraint endpoint_hit_pk primary key,
+    app_name varchar(128) not null,
+    uri      varchar(128) not null,
+    ip       varchar(40) not null,
+    hit_time timestamp    not null
+);
+
+create table if not exists endpoint_hit_rollup
+(
+    granularity  varchar(8)   not null,
+    bucket_start timestamp    not null,
+    app_name     varchar(128) not null,
+    uri          varchar(128) not null,
+    hits         bigint       not null,
+    constraint endpoint_hit_rollup_pk primary key (granularity, bucket_start, app_name, uri)
+);
+
+create table if not exists endpoint_hit_sketch
+(
+    granularity  varchar(8)   not null,
+    bucket_start timestamp    not null,
+    app_name     varchar(128) not null,
+    uri          varchar(128) not null,
+    registers    bytea        not null,
+    constraint endpoint_hit_sketch_pk primary key (granularity, bucket_start, app_name, uri)
+);
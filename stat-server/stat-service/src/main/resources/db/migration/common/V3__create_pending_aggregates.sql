@@ -0,0 +1,19 @@
+create table if not exists endpoint_hit_rollup_delta
+(
+    id           bigserial constraint endpoint_hit_rollup_delta_pk primary key,
+    granularity  varchar(8)   not null,
+    bucket_start timestamp    not null,
+    app_name     varchar(128) not null,
+    uri          varchar(128) not null,
+    hits         bigint       not null
+);
+
+create table if not exists endpoint_hit_sketch_delta
+(
+    id           bigserial constraint endpoint_hit_sketch_delta_pk primary key,
+    granularity  varchar(8)   not null,
+    bucket_start timestamp    not null,
+    app_name     varchar(128) not null,
+    uri          varchar(128) not null,
+    registers    bytea        not null
+);
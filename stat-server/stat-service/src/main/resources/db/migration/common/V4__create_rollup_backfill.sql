@@ -0,0 +1,12 @@
+create table if not exists rollup_backfill
+(
+    id          integer constraint rollup_backfill_pk primary key,
+    last_hit_id bigint  not null,
+    completed   boolean not null
+);
+
+-- Hits up to last_hit_id were stored before ingest started writing deltas. A database that already holds rollups
+-- was aggregated by an earlier release, so there is nothing left to backfill.
+insert into rollup_backfill (id, last_hit_id, completed)
+select 1, coalesce(max(id), 0), exists(select 1 from endpoint_hit_rollup)
+from endpoint_hit;
@@ -0,0 +1,41 @@
+alter table endpoint_hit rename to endpoint_hit_legacy;
+alter table endpoint_hit_legacy rename constraint endpoint_hit_pk to endpoint_hit_legacy_pk;
+
+create table endpoint_hit
+(
+    id       integer      not null default nextval('endpoint_hit_id_seq'),
+    app_name varchar(128) not null,
+    uri      varchar(128) not null,
+    ip       varchar(40)  not null,
+    hit_time timestamp    not null,
+    constraint endpoint_hit_pk primary key (id, hit_time)
+) partition by range (hit_time);
+
+alter sequence endpoint_hit_id_seq owned by endpoint_hit.id;
+
+create index endpoint_hit_hit_time_uri_idx on endpoint_hit (hit_time, uri);
+
+create table endpoint_hit_default partition of endpoint_hit default;
+
+do
+$$
+    declare
+        day date;
+    begin
+        for day in select distinct date_trunc('day', hit_time)::date from endpoint_hit_legacy
+            loop
+                execute format(
+                        'create table %I partition of endpoint_hit for values from (%L) to (%L)',
+                        'endpoint_hit_p' || to_char(day, 'YYYYMMDD'),
+                        day,
+                        day + 1
+                    );
+            end loop;
+    end
+$$;
+
+insert into endpoint_hit (id, app_name, uri, ip, hit_time)
+select id, app_name, uri, ip, hit_time
+from endpoint_hit_legacy;
+
+drop table endpoint_hit_legacy;
@@ -0,0 +1,54 @@
+package ru.practicum.statservice.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.statservice.storage.StatServiceRepository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class HitValidationTest {
+    private static final String VALID_HIT =
+            "{\"app\":\"ewm\",\"uri\":\"/events\",\"ip\":\"127.0.0.1\",\"timestamp\":\"2026-01-01 10:00:00\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private StatServiceRepository statServiceRepository;
+
+    @Test
+    void batchWithMissingTimestampIsRejected() throws Exception {
+        postBatch("[" + VALID_HIT + ",{\"app\":\"ewm\",\"uri\":\"/events\",\"ip\":\"127.0.0.1\"}]");
+    }
+
+    @Test
+    void batchWithMalformedTimestampIsRejected() throws Exception {
+        postBatch("[" + VALID_HIT + "," + VALID_HIT.replace("2026-01-01 10:00:00", "2026-01-01T10:00") + "]");
+    }
+
+    @Test
+    void batchWithMissingUriIsRejected() throws Exception {
+        postBatch("[" + VALID_HIT.replace("\"uri\":\"/events\",", "") + "]");
+    }
+
+    @Test
+    void singleHitWithMalformedTimestampIsRejected() throws Exception {
+        mockMvc.perform(post("/hit")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(VALID_HIT.replace("2026-01-01 10:00:00", "yesterday")))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void postBatch(String body) throws Exception {
+        mockMvc.perform(post("/hit/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isBadRequest());
+        assertEquals(0, statServiceRepository.count());
+    }
+}
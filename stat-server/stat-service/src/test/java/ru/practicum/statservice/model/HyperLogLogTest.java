@@ -0,0 +1,72 @@
+package ru.practicum.statservice.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HyperLogLogTest {
+
+    @Test
+    void emptySketchEstimatesZero() {
+        assertEquals(0, new HyperLogLog().estimate());
+    }
+
+    @Test
+    void estimateStaysWithinThreeStandardErrors() {
+        for (int distinct : new int[]{100, 1_000, 5_000, 10_000, 50_000, 200_000}) {
+            final HyperLogLog sketch = sketch(0, distinct);
+            final double error = Math.abs(sketch.estimate() - distinct) / (double) distinct;
+            assertTrue(error < 3 * standardError(distinct), distinct + " distinct values estimated as " + sketch.estimate());
+        }
+    }
+
+    @Test
+    void duplicatesDoNotChangeEstimate() {
+        final HyperLogLog sketch = sketch(0, 1_000);
+        final long estimate = sketch.estimate();
+        for (int i = 0; i < 1_000; i++) {
+            sketch.add(ip(i));
+        }
+        assertEquals(estimate, sketch.estimate());
+    }
+
+    @Test
+    void mergeEqualsSketchOfUnion() {
+        final HyperLogLog merged = sketch(0, 30_000);
+        merged.merge(sketch(20_000, 60_000));
+        assertArrayEquals(sketch(0, 60_000).toBytes(), merged.toBytes());
+    }
+
+    @Test
+    void sparseAndDenseEncodingsRoundTrip() {
+        final HyperLogLog sparse = sketch(0, 50);
+        final HyperLogLog dense = sketch(0, 50_000);
+        assertTrue(sparse.toBytes().length < dense.toBytes().length);
+        assertArrayEquals(sparse.toBytes(), HyperLogLog.fromBytes(sparse.toBytes()).toBytes());
+        assertArrayEquals(dense.toBytes(), HyperLogLog.fromBytes(dense.toBytes()).toBytes());
+        assertEquals(dense.estimate(), HyperLogLog.fromBytes(dense.toBytes()).estimate());
+    }
+
+    private static double standardError(int distinct) {
+        final int registers = 4096;
+        if (distinct > 2.5 * registers) {
+            return 1.04 / Math.sqrt(registers);
+        }
+        final double t = (double) distinct / registers;
+        return Math.sqrt(registers * (Math.exp(t) - t - 1)) / distinct;
+    }
+
+    private static HyperLogLog sketch(int from, int to) {
+        final HyperLogLog sketch = new HyperLogLog();
+        for (int i = from; i < to; i++) {
+            sketch.add(ip(i));
+        }
+        return sketch;
+    }
+
+    private static String ip(int i) {
+        return "10." + (i >>> 16 & 0xff) + "." + (i >>> 8 & 0xff) + "." + (i & 0xff);
+    }
+}
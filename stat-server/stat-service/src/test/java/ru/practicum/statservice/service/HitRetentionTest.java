@@ -0,0 +1,97 @@
+package ru.practicum.statservice.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.statdto.dto.Constants;
+import ru.practicum.statdto.dto.EndpointHitDto;
+import ru.practicum.statdto.dto.ViewStatsDto;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+        "stat-service.partitions.enabled=true",
+        "stat-service.partitions.retention-days=30"
+})
+class HitRetentionTest {
+    private static final String URI = "/events/1";
+    private static final LocalDate TODAY = LocalDate.now();
+    private static final LocalDateTime EXPIRED_DAY = TODAY.minusDays(40).atTime(10, 0);
+    private static final LocalDateTime RECENT_DAY = TODAY.minusDays(1).atTime(12, 0);
+
+    @Autowired
+    private StatService statService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @MockBean
+    private PartitionMaintenanceJob partitionMaintenanceJob;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from endpoint_hit");
+        jdbcTemplate.update("delete from endpoint_hit_rollup_delta");
+        jdbcTemplate.update("delete from endpoint_hit_sketch_delta");
+    }
+
+    @Test
+    void countsDoNotChangeWhenExpiredPartitionIsDropped() {
+        postHits();
+        final LocalDateTime start = TODAY.minusDays(60).atStartOfDay();
+
+        assertEquals(4, hits(start, true));
+        assertEquals(5, hits(start, false));
+
+        dropExpiredHits();
+
+        assertEquals(4, hits(start, true));
+        assertEquals(5, hits(start, false));
+    }
+
+    @Test
+    void rangeWithinRetentionIsCountedFromRawHits() {
+        postHits();
+        dropExpiredHits();
+
+        assertEquals(1, hits(TODAY.minusDays(7).atStartOfDay(), true));
+    }
+
+    private void postHits() {
+        statService.postEndpointHits(List.of(
+                hit("10.0.0.1", EXPIRED_DAY),
+                hit("10.0.0.1", EXPIRED_DAY.plusMinutes(1)),
+                hit("10.0.0.2", EXPIRED_DAY.plusMinutes(2)),
+                hit("10.0.0.3", EXPIRED_DAY.plusMinutes(3)),
+                hit("10.0.0.4", RECENT_DAY)
+        ).iterator());
+    }
+
+    private void dropExpiredHits() {
+        jdbcTemplate.update(
+                "delete from endpoint_hit where hit_time < ?",
+                Timestamp.valueOf(TODAY.minusDays(30).atStartOfDay())
+        );
+    }
+
+    private long hits(LocalDateTime start, boolean unique) {
+        final List<ViewStatsDto> stats = statService.getStat(start, LocalDateTime.now(), List.of(URI), unique, false);
+        assertEquals(1, stats.size());
+        return stats.get(0).getHits();
+    }
+
+    private static EndpointHitDto hit(String ip, LocalDateTime timestamp) {
+        return EndpointHitDto.builder()
+                .app("ewm-main-service")
+                .uri(URI)
+                .ip(ip)
+                .timestamp(timestamp.format(Constants.FORMATTER))
+                .build();
+    }
+}
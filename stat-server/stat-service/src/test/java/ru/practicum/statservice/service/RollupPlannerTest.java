@@ -0,0 +1,79 @@
+package ru.practicum.statservice.service;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.statservice.model.RollupGranularity;
+import ru.practicum.statservice.model.TimeSegment;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RollupPlannerTest {
+    private static final List<RollupGranularity> ALL = List.of(RollupGranularity.values());
+
+    @Test
+    void alignedMonthIsOneSegment() {
+        assertEquals(
+                List.of(new TimeSegment(RollupGranularity.MONTH, time("2026-02-01T00:00"), time("2026-03-01T00:00"))),
+                RollupPlanner.plan(time("2026-02-01T00:00"), time("2026-03-01T00:00"), ALL)
+        );
+    }
+
+    @Test
+    void unalignedEdgesUseFinerLevels() {
+        assertEquals(
+                List.of(
+                        new TimeSegment(null, time("2026-01-30T10:15:30"), time("2026-01-30T10:16")),
+                        new TimeSegment(RollupGranularity.MINUTE, time("2026-01-30T10:16"), time("2026-01-30T11:00")),
+                        new TimeSegment(RollupGranularity.HOUR, time("2026-01-30T11:00"), time("2026-01-31T00:00")),
+                        new TimeSegment(RollupGranularity.DAY, time("2026-01-31T00:00"), time("2026-02-01T00:00")),
+                        new TimeSegment(RollupGranularity.MONTH, time("2026-02-01T00:00"), time("2026-03-01T00:00")),
+                        new TimeSegment(RollupGranularity.DAY, time("2026-03-01T00:00"), time("2026-03-02T00:00")),
+                        new TimeSegment(RollupGranularity.HOUR, time("2026-03-02T00:00"), time("2026-03-02T01:00"))
+                ),
+                RollupPlanner.plan(time("2026-01-30T10:15:30"), time("2026-03-02T01:00"), ALL)
+        );
+    }
+
+    @Test
+    void rangeWithinOneMinuteIsRaw() {
+        assertEquals(
+                List.of(new TimeSegment(null, time("2026-01-30T10:15:10"), time("2026-01-30T10:15:40"))),
+                RollupPlanner.plan(time("2026-01-30T10:15:10"), time("2026-01-30T10:15:40"), ALL)
+        );
+    }
+
+    @Test
+    void emptyRangeHasNoSegments() {
+        assertEquals(List.of(), RollupPlanner.plan(time("2026-01-30T10:00"), time("2026-01-30T10:00"), ALL));
+    }
+
+    @Test
+    void segmentsTileRangeWithAlignedBuckets() {
+        final Random random = new Random(42);
+        final LocalDateTime origin = time("2025-01-01T00:00");
+        for (int i = 0; i < 1_000; i++) {
+            final LocalDateTime start = origin.plusSeconds(random.nextInt(400 * 24 * 3600));
+            final LocalDateTime end = start.plusSeconds(random.nextInt(90 * 24 * 3600));
+            final List<TimeSegment> segments = RollupPlanner.plan(start, end, ALL);
+            LocalDateTime covered = start;
+            for (TimeSegment segment : segments) {
+                assertEquals(covered, segment.getStart());
+                assertTrue(segment.getStart().isBefore(segment.getEnd()));
+                if (!segment.isRaw()) {
+                    assertEquals(segment.getStart(), segment.getGranularity().floor(segment.getStart()));
+                    assertEquals(segment.getEnd(), segment.getGranularity().floor(segment.getEnd()));
+                }
+                covered = segment.getEnd();
+            }
+            assertEquals(start.isBefore(end) ? end : start, covered);
+        }
+    }
+
+    private static LocalDateTime time(String value) {
+        return LocalDateTime.parse(value);
+    }
+}